@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.codec.NotificationCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the encoding and the decoding of notifications with {@link NotificationCodec}, Java serialization and Jackson
+ * JSON, for several numbers of periods and sizes of configuration.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class CodecBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({ "1", "5" })
+    private int periods;
+
+    @Param({ "10", "1000" })
+    private int entries;
+
+    private Notification notification;
+
+    private byte[] codec;
+    private byte[] serialized;
+    private byte[] json;
+
+    private ObjectReader reader;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setup() throws IOException {
+        reader = MAPPER.readerFor(Notification.class);
+        writer = MAPPER.writerFor(Notification.class);
+
+        notification = reader.readValue(Fixtures.notificationJson(entries));
+        notification.setPeriods(Fixtures.periods(periods));
+
+        codec = NotificationCodec.encode(notification);
+        serialized = javaSerialize();
+        json = jacksonWrite();
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return NotificationCodec.encode(notification);
+    }
+
+    @Benchmark
+    public Notification codecDecode() {
+        return NotificationCodec.decode(codec);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(notification);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Notification javaDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return (Notification) in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] jacksonWrite() throws IOException {
+        return writer.writeValueAsBytes(notification);
+    }
+
+    @Benchmark
+    public Notification jacksonRead() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.benchmark;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Realistic inputs shared by the benchmarks. Inputs are generated from a fixed seed so runs can be compared.
+ *
+ * @author GraviteeSource Team
+ */
+final class Fixtures {
+
+    static final String[] ZONES = { "Europe/Paris", "America/New_York", "Asia/Tokyo", "Australia/Sydney", "UTC", "America/Sao_Paulo" };
+
+    private static final long SEED = 0x5EEDL;
+
+    private Fixtures() {}
+
+    /**
+     * Generates periods spread over several zones, each covering a few week days and a time range of at least one hour.
+     */
+    static List<Period> periods(int count) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final List<Period> periods = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            final List<Integer> days = new ArrayList<>();
+            for (int day = 1; day <= 7; day++) {
+                if (random.nextInt(3) != 0) {
+                    days.add(day);
+                }
+            }
+
+            final int begin = random.nextInt(0, 82800);
+            final int end = random.nextInt(begin + 3600, 86400);
+
+            periods.add(new Period.Builder().days(days).zoneId(ZONES[i % ZONES.length]).beginHour(begin).endHour(end).build());
+        }
+
+        return periods;
+    }
+
+    static Notification notification(int periods) {
+        final Notification notification = new Notification();
+        notification.setType("email");
+        notification.setPeriods(periods(periods));
+        return notification;
+    }
+
+    /**
+     * Timestamps spread over a few weeks, so that all days and zone offsets are visited.
+     */
+    static long[] timestamps(int count) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final long origin = 1_700_000_000_000L;
+        final long[] timestamps = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = origin + random.nextLong(90L * 24 * 3600 * 1000);
+        }
+
+        return timestamps;
+    }
+
+    /**
+     * Generates a FreeMarker template iterating over a list of events, padded with static markup to reach the requested
+     * size in characters.
+     */
+    static String template(int size) {
+        final StringBuilder template = new StringBuilder(size + 512);
+        template.append("<html><body><h1>${api.name} alert</h1>\n");
+        template.append("<p>Dear ${owner.name},</p>\n");
+        template.append("<#list events as event><tr><td>${event.id}</td><td>${event.message}</td><td>${event.status}</td></tr></#list>\n");
+
+        int line = 0;
+        while (template.length() < size) {
+            template.append("<p class=\"line-").append(line++).append("\">Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>\n");
+        }
+
+        return template.append("</body></html>").toString();
+    }
+
+    static Map<String, Object> parameters(int events) {
+        final List<Map<String, Object>> list = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            list.add(Map.of("id", "event-" + i, "message", "Health check failed on endpoint #" + i, "status", i % 2 == 0 ? "DOWN" : "UP"));
+        }
+
+        return Map.of("api", Map.of("name", "Payments"), "owner", Map.of("name", "John Doe"), "events", list);
+    }
+
+    /**
+     * Generates a JSON notification whose configuration is an object with the requested number of entries, mixing
+     * strings, numbers, nested objects and arrays.
+     */
+    static String notificationJson(int entries) {
+        final StringBuilder json = new StringBuilder(entries * 96 + 256);
+        json.append("{\"type\":\"webhook\",\"periods\":[{\"days\":[1,2,3,4,5],\"zoneId\":\"Europe/Paris\",\"beginHour\":0,\"endHour\":86399}]");
+        json.append(",\"configuration\":{");
+
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append("\"header-").append(i).append("\":");
+            switch (i % 4) {
+                case 0 -> json.append("\"value-").append(i).append(" with some \\\"escaped\\\" content and unicode \\u00e9\"");
+                case 1 -> json.append(i * 31L).append('.').append(i % 10);
+                case 2 -> json.append("{\"enabled\":true,\"retries\":").append(i).append(",\"url\":\"https://example.com/").append(i).append("\"}");
+                default -> json.append("[").append(i).append(",\"a\",null,false]");
+            }
+        }
+
+        return json.append("}}").toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.benchmark;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.outbox.Outbox;
+import io.gravitee.notifier.api.outbox.OutboxOptions;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the cost of persisting a notification in the {@link Outbox} and acknowledging it once sent.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class OutboxBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean syncOnWrite;
+
+    private Outbox outbox;
+    private Notification notification;
+    private Map<String, Object> parameters;
+
+    @Setup
+    public void setup() throws IOException {
+        final Path directory = Files.createTempDirectory("outbox-benchmark");
+        outbox = Outbox.open(new OutboxOptions.Builder().directory(directory).syncOnWrite(syncOnWrite).build());
+        notification = Fixtures.notification(3);
+        notification.setConfiguration("{\"to\":\"ops@example.com\",\"subject\":\"API health check failed\"}");
+        parameters = Map.of("api", "Payments", "endpoint", "https://payments.example.com/health", "status", 503);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        outbox.close();
+    }
+
+    @Benchmark
+    public boolean appendAndAcknowledge() throws IOException {
+        return outbox.acknowledge(outbox.append(notification, parameters));
+    }
+}
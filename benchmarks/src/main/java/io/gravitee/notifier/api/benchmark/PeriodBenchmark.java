@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.benchmark;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.Period;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the evaluation of time periods, from a single {@link Period} to a {@link Notification} holding many periods
+ * in several time zones.
+ *
+ * The <code>legacy</code> benchmark keeps the original, {@link ZonedDateTime} based, implementation of
+ * {@link Period#isIncluded(LocalDateTime)} as a baseline.
+ *
+ * The <code>subscriptions</code> benchmarks check a large set of notifications, sharing a few distinct definitions of
+ * periods, against the current time: <code>subscriptionsPeriods</code> evaluates the periods of each notification,
+ * <code>subscriptionsCanNotify</code> relies on the schedules shared by equivalent notifications.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class PeriodBenchmark {
+
+    private static final int TIMESTAMPS = 1024;
+
+    private static final int SUBSCRIPTIONS = 10_000;
+
+    private static final int DISTINCT_SCHEDULES = 8;
+
+    @Param({ "1", "10", "100" })
+    private int periods;
+
+    private List<Period> list;
+    private Notification notification;
+    private long[] timestamps;
+    private LocalDateTime[] dateTimes;
+    private Notification[] subscriptions;
+    private long now;
+
+    @Setup
+    public void setup() {
+        list = Fixtures.periods(periods);
+        notification = Fixtures.notification(periods);
+        timestamps = Fixtures.timestamps(TIMESTAMPS);
+        dateTimes = new LocalDateTime[TIMESTAMPS];
+
+        for (int i = 0; i < TIMESTAMPS; i++) {
+            dateTimes[i] = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps[i]), ZoneId.systemDefault());
+        }
+
+        // Each subscription holds its own copy of one of a few distinct definitions, as when deserialized.
+        subscriptions = new Notification[SUBSCRIPTIONS];
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            final List<Period> copy = new ArrayList<>();
+            for (Period period : Fixtures.periods(periods + i % DISTINCT_SCHEDULES)) {
+                copy.add(
+                    new Period.Builder()
+                        .days(new ArrayList<>(period.getDays()))
+                        .zoneId(period.getZoneId())
+                        .beginHour(period.getBeginHour())
+                        .endHour(period.getEndHour())
+                        .build()
+                );
+            }
+            subscriptions[i] = new Notification();
+            subscriptions[i].setPeriods(copy);
+        }
+        now = timestamps[0];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void legacy(Blackhole blackhole) {
+        for (LocalDateTime dateTime : dateTimes) {
+            boolean included = false;
+            for (Period period : list) {
+                if (legacyIsIncluded(period, dateTime)) {
+                    included = true;
+                    break;
+                }
+            }
+            blackhole.consume(included);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void periods(Blackhole blackhole) {
+        for (long timestamp : timestamps) {
+            boolean included = false;
+            for (Period period : list) {
+                if (period.isIncluded(timestamp)) {
+                    included = true;
+                    break;
+                }
+            }
+            blackhole.consume(included);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void canNotify(Blackhole blackhole) {
+        for (long timestamp : timestamps) {
+            blackhole.consume(notification.canNotify(timestamp));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUBSCRIPTIONS)
+    public void subscriptionsPeriods(Blackhole blackhole) {
+        for (Notification subscription : subscriptions) {
+            boolean included = false;
+            for (Period period : subscription.getPeriods()) {
+                if (period.isIncluded(now)) {
+                    included = true;
+                    break;
+                }
+            }
+            blackhole.consume(included);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUBSCRIPTIONS)
+    public void subscriptionsCanNotify(Blackhole blackhole) {
+        for (Notification subscription : subscriptions) {
+            blackhole.consume(subscription.canNotify(now));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void nextNotificationTime(Blackhole blackhole) {
+        for (long timestamp : timestamps) {
+            blackhole.consume(notification.nextNotificationTime(timestamp));
+        }
+    }
+
+    private static boolean legacyIsIncluded(Period period, LocalDateTime dateTime) {
+        final ZoneId zoneId = ZoneId.of(period.getZoneId());
+        final ZonedDateTime zonedDateTime = dateTime.atZone(ZoneOffset.systemDefault()).withZoneSameInstant(zoneId);
+
+        if (period.getDays() != null && !period.getDays().contains(zonedDateTime.getDayOfWeek().getValue())) {
+            return false;
+        }
+
+        final OffsetTime time = zonedDateTime.toOffsetDateTime().toOffsetTime();
+        final OffsetTime begin = OffsetTime.of(LocalTime.ofSecondOfDay(period.getBeginHour()), zoneId.getRules().getOffset(Instant.now()));
+        final OffsetTime end = OffsetTime.of(LocalTime.ofSecondOfDay(period.getEndHour()), zoneId.getRules().getOffset(Instant.now()));
+
+        return time.isEqual(begin) || (time.isAfter(begin) && (time.isBefore(end) || time.isEqual(end)));
+    }
+}
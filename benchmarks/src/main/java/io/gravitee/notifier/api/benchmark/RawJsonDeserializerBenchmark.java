@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.jackson.RawJsonDeserializer;
+import io.gravitee.notifier.api.jackson.RawJsonValueDeserializer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the deserialization of notifications holding large raw JSON configurations.
+ *
+ * <ul>
+ *     <li><code>tree</code> is the original approach of {@link RawJsonDeserializer}, building a {@link JsonNode} and
+ *     writing it back as a string.</li>
+ *     <li><code>streaming</code> is the current, eager, deserialization.</li>
+ *     <li><code>lazy</code> keeps the configuration as UTF-8 bytes, see {@link RawJsonValueDeserializer#LAZY_ATTRIBUTE}.</li>
+ *     <li><code>lazyDecoded</code> is the lazy deserialization followed by a read of the configuration.</li>
+ * </ul>
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class RawJsonDeserializerBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({ "10", "1000", "10000" })
+    private int entries;
+
+    private byte[] json;
+    private ObjectReader reader;
+    private ObjectReader lazyReader;
+
+    @Setup
+    public void setup() {
+        json = Fixtures.notificationJson(entries).getBytes(StandardCharsets.UTF_8);
+        reader = MAPPER.readerFor(Notification.class);
+        lazyReader = reader.withAttribute(RawJsonValueDeserializer.LAZY_ATTRIBUTE, true);
+    }
+
+    @Benchmark
+    public String tree() throws IOException {
+        return MAPPER.readTree(json).get("configuration").toString();
+    }
+
+    @Benchmark
+    public Notification streaming() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public Notification lazy() throws IOException {
+        return lazyReader.readValue(json);
+    }
+
+    @Benchmark
+    public String lazyDecoded() throws IOException {
+        final Notification notification = lazyReader.readValue(json);
+        return notification.getConfiguration();
+    }
+}
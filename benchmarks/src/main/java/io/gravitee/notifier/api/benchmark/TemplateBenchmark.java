@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.benchmark;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import io.gravitee.notifier.api.AbstractConfigurableNotifier;
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.NotifierConfiguration;
+import io.gravitee.notifier.api.render.RenderBuffer;
+import io.gravitee.notifier.api.render.TemplateData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures {@link AbstractConfigurableNotifier#templatize(String, Map)} on large templates, against a baseline parsing
+ * the template on each call.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class TemplateBenchmark {
+
+    private static final Configuration BASELINE_CONFIGURATION = new Configuration(Configuration.VERSION_2_3_32);
+
+    @Param({ "1024", "65536" })
+    private int templateSize;
+
+    @Param({ "10", "1000" })
+    private int events;
+
+    private String template;
+    private Map<String, Object> parameters;
+    private TemplateData data;
+    private BenchmarkNotifier notifier;
+
+    @Setup
+    public void setup() {
+        template = Fixtures.template(templateSize);
+        parameters = Fixtures.parameters(events);
+        data = TemplateData.of(parameters);
+        notifier = new BenchmarkNotifier();
+    }
+
+    @Benchmark
+    public String parseEachTime() throws IOException, TemplateException {
+        final Template parsed = new Template("notification-template", template, BASELINE_CONFIGURATION);
+        final StringWriter result = new StringWriter();
+        parsed.process(parameters, result);
+        return result.toString();
+    }
+
+    @Benchmark
+    public String templatize() throws IOException, TemplateException {
+        return notifier.templatize(template, parameters);
+    }
+
+    @Benchmark
+    public String templatizeTemplateData() throws IOException, TemplateException {
+        return notifier.templatize(template, data);
+    }
+
+    @Benchmark
+    public int templatizeToBuffer() throws IOException, TemplateException {
+        try (RenderBuffer buffer = notifier.templatizeToBuffer(template, parameters)) {
+            buffer.writeTo(OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+            return buffer.length();
+        }
+    }
+
+    @Benchmark
+    public String templatizeToBytes() throws IOException, TemplateException {
+        // Baseline of the buffer: render as a string, then encode it for the transport.
+        final String rendered = notifier.templatize(template, parameters);
+        OutputStream.nullOutputStream().write(rendered.getBytes(StandardCharsets.UTF_8));
+        return rendered;
+    }
+
+    private static final class BenchmarkNotifier extends AbstractConfigurableNotifier<NotifierConfiguration> {
+
+        private BenchmarkNotifier() {
+            super("benchmark", new NotifierConfiguration() {});
+        }
+
+        @Override
+        protected String templatize(String payload, Map<String, Object> parameters) throws IOException, TemplateException {
+            return super.templatize(payload, parameters);
+        }
+
+        @Override
+        protected RenderBuffer templatizeToBuffer(String payload, Map<String, Object> parameters) throws IOException, TemplateException {
+            return super.templatizeToBuffer(payload, parameters);
+        }
+
+        @Override
+        protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
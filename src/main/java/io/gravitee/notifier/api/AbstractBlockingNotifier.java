@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Base class for notifiers relying on blocking I/O to deliver notifications.
+ *
+ * Implementations only have to write plain, synchronous delivery code in {@link #deliver(Notification, Map)}. Each
+ * delivery runs on its own virtual thread, so that blocking does not hold a platform thread, and the number of
+ * deliveries running at the same time for this notifier is capped.
+ *
+ * @author GraviteeSource Team
+ */
+public abstract class AbstractBlockingNotifier<C extends NotifierConfiguration> extends AbstractConfigurableNotifier<C> {
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 256;
+
+    private final ThreadFactory threadFactory;
+
+    private final Semaphore permits;
+
+    public AbstractBlockingNotifier(String type, C configuration) {
+        this(type, configuration, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public AbstractBlockingNotifier(String type, C configuration, int maxConcurrency) {
+        super(type, configuration);
+
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The maximum number of concurrent deliveries must be strictly positive");
+        }
+
+        this.threadFactory = Thread.ofVirtual().name("notifier-" + type + "-", 0).factory();
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    protected final CompletableFuture<Void> doSend(final Notification notification, final Map<String, Object> parameters) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        final Thread thread = threadFactory.newThread(() -> {
+            try {
+                // Waiting for a permit only parks the virtual thread.
+                permits.acquire();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(ie);
+                return;
+            }
+
+            if (result.isDone()) {
+                // Cancelled or timed out while waiting for a permit.
+                permits.release();
+                return;
+            }
+
+            Throwable failure = null;
+            try {
+                deliver(notification, parameters);
+            } catch (Throwable throwable) {
+                failure = throwable;
+            } finally {
+                permits.release();
+            }
+
+            // Complete once the permit is released, so that dependent actions do not hold it.
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(null);
+            }
+        });
+
+        thread.start();
+
+        // Interrupt the delivery when the send is cancelled or reaches its deadline, so that blocking I/O is aborted.
+        result.whenComplete((ignore, throwable) -> {
+            if (throwable != null && Thread.currentThread() != thread) {
+                thread.interrupt();
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Delivers the notification, blocking the current (virtual) thread until it is done. The thread is interrupted when
+     * the send is cancelled or reaches its deadline.
+     *
+     * @throws Exception if the notification can not be delivered.
+     */
+    protected abstract void deliver(final Notification notification, final Map<String, Object> parameters) throws Exception;
+
+    /**
+     * Returns the number of deliveries which can still be started before reaching the concurrency cap.
+     */
+    public int availableConcurrency() {
+        return permits.availablePermits();
+    }
+}
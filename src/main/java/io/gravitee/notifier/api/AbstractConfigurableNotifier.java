@@ -15,13 +15,22 @@
  */
 package io.gravitee.notifier.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import freemarker.cache.StringTemplateLoader;
 import freemarker.core.TemplateClassResolver;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
+import io.gravitee.notifier.api.cache.BoundedCache;
+import io.gravitee.notifier.api.metrics.NotifierMetrics;
+import io.gravitee.notifier.api.render.RenderBuffer;
+import io.gravitee.notifier.api.render.TemplateData;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.Map;
 
 /**
@@ -30,10 +39,39 @@ import java.util.Map;
  */
 public abstract class AbstractConfigurableNotifier<C extends NotifierConfiguration> extends AbstractNotifier {
 
+    /**
+     * Maximum number of compiled templates kept in memory, can be overridden with the <code>gravitee.notifier.templates.cache.size</code>
+     * system property.
+     */
+    private static final int DEFAULT_TEMPLATE_CACHE_SIZE = 1000;
+
+    /**
+     * Maximum number of parsed notification configurations kept in memory for each notifier class, can be overridden
+     * with the <code>gravitee.notifier.configurations.cache.size</code> system property.
+     */
+    private static final int DEFAULT_CONFIGURATION_CACHE_SIZE = 10_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     protected C configuration;
 
     private static final Configuration CONFIGURATION;
 
+    private static final BoundedCache<String, Template> TEMPLATES = new BoundedCache<>(
+        Integer.getInteger("gravitee.notifier.templates.cache.size", DEFAULT_TEMPLATE_CACHE_SIZE)
+    );
+
+    /**
+     * Parsed configurations, cached per notifier class since subclasses may parse them differently. The caches are
+     * attached to the notifier classes, so they do not prevent plugin class loaders from being unloaded.
+     */
+    private static final ClassValue<BoundedCache<ConfigurationKey, Object>> CONFIGURATIONS = new ClassValue<>() {
+        @Override
+        protected BoundedCache<ConfigurationKey, Object> computeValue(Class<?> notifierClass) {
+            return new BoundedCache<>(Integer.getInteger("gravitee.notifier.configurations.cache.size", DEFAULT_CONFIGURATION_CACHE_SIZE));
+        }
+    };
+
     static {
         CONFIGURATION = new freemarker.template.Configuration(Configuration.VERSION_2_3_32);
 
@@ -46,11 +84,146 @@ public abstract class AbstractConfigurableNotifier<C extends NotifierConfigurati
         this.configuration = configuration;
     }
 
+    /**
+     * Renders the template with the specified parameters. Parameters built with {@link TemplateData#of(Map)} are rendered
+     * from their cached data model, which saves wrapping them again when they are rendered many times, and each template
+     * is only rendered once for them.
+     */
     protected String templatize(String payload, Map<String, Object> parameters) throws IOException, TemplateException {
-        final Template template = new Template(Integer.toString(payload.hashCode()), payload, CONFIGURATION);
+        if (parameters instanceof TemplateData) {
+            return ((TemplateData) parameters).render(payload, template -> templatizeToString(template, parameters));
+        }
 
-        StringWriter result = new StringWriter();
-        template.process(parameters, result);
+        return templatizeToString(payload, parameters);
+    }
+
+    private String templatizeToString(String payload, Map<String, Object> parameters) throws IOException, TemplateException {
+        final StringWriter result = new StringWriter();
+        templatize(payload, parameters, result);
         return result.toString();
     }
+
+    /**
+     * Renders the template straight into the specified writer, without building the result in memory. The writer is
+     * neither flushed nor closed.
+     */
+    protected void templatize(String payload, Map<String, Object> parameters, Writer out) throws IOException, TemplateException {
+        final NotifierMetrics metrics = NotifierMetrics.current();
+
+        if (metrics == NotifierMetrics.NOOP) {
+            render(payload, parameters, out);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            render(payload, parameters, out);
+            metrics.rendered(getType(), System.nanoTime() - start, null);
+        } catch (IOException | TemplateException | RuntimeException e) {
+            metrics.rendered(getType(), System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Renders the template straight into the specified stream, encoded with the specified charset. The stream is flushed
+     * but not closed.
+     */
+    protected void templatize(String payload, Map<String, Object> parameters, OutputStream out, Charset charset)
+        throws IOException, TemplateException {
+        final Writer writer = new OutputStreamWriter(out, charset);
+        templatize(payload, parameters, writer);
+        writer.flush();
+    }
+
+    /**
+     * Renders the template into a buffer taken from a shared pool, which avoids allocating and growing a new buffer for
+     * each rendering. The buffer must be closed once its content has been consumed, to give it back to the pool.
+     */
+    protected RenderBuffer templatizeToBuffer(String payload, Map<String, Object> parameters) throws IOException, TemplateException {
+        final RenderBuffer buffer = RenderBuffer.acquire();
+
+        try {
+            templatize(payload, parameters, buffer);
+            return buffer;
+        } catch (IOException | TemplateException | RuntimeException e) {
+            buffer.close();
+            throw e;
+        }
+    }
+
+    private static void render(String payload, Map<String, Object> parameters, Writer out) throws IOException, TemplateException {
+        final Template template = TEMPLATES.get(payload, AbstractConfigurableNotifier::compile);
+        template.process(parameters instanceof TemplateData ? ((TemplateData) parameters).model() : parameters, out);
+    }
+
+    /**
+     * Returns the configuration of the notification parsed as the specified type.
+     *
+     * Parsed configurations are cached by their raw content and shared by all the notifications having the same
+     * configuration and sent by notifiers of the same class: the returned instance must be considered as immutable.
+     *
+     * @return the parsed configuration, <code>null</code> if the notification has no configuration.
+     */
+    protected <T extends C> T readConfiguration(Notification notification, Class<T> type) throws IOException {
+        final String raw = notification.getConfiguration();
+
+        if (raw == null) {
+            return null;
+        }
+
+        return type.cast(CONFIGURATIONS.get(getClass()).get(new ConfigurationKey(type, raw), key -> parseConfiguration(key.raw, type)));
+    }
+
+    /**
+     * Parses the raw configuration of a notification, only called when it is not already cached.
+     */
+    protected <T extends C> T parseConfiguration(String raw, Class<T> type) throws IOException {
+        return MAPPER.readValue(raw, type);
+    }
+
+    private static Template compile(String payload) throws IOException {
+        // Templates are cached by their content, the name is only used by FreeMarker for error reporting.
+        return new Template("notification-template", payload, CONFIGURATION);
+    }
+
+    /**
+     * Gives access to the compiled templates cache shared by all the notifiers, mainly to expose its statistics.
+     */
+    public static BoundedCache<String, Template> templateCache() {
+        return TEMPLATES;
+    }
+
+    /**
+     * Gives access to the parsed configurations cache shared by all the notifiers of this class, mainly to expose its
+     * statistics.
+     */
+    public BoundedCache<?, ?> configurationCache() {
+        return CONFIGURATIONS.get(getClass());
+    }
+
+    private static final class ConfigurationKey {
+
+        private final Class<?> type;
+
+        private final String raw;
+
+        private ConfigurationKey(Class<?> type, String raw) {
+            this.type = type;
+            this.raw = raw;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ConfigurationKey that = (ConfigurationKey) o;
+            return type == that.type && raw.equals(that.raw);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + raw.hashCode();
+        }
+    }
 }
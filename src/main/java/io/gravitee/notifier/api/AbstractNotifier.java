@@ -18,8 +18,33 @@ package io.gravitee.notifier.api;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 import io.gravitee.node.logging.NodeLoggerFactory;
+import io.gravitee.notifier.api.circuitbreaker.CircuitBreaker;
+import io.gravitee.notifier.api.circuitbreaker.CircuitBreakerOptions;
+import io.gravitee.notifier.api.deferral.DeferralOptions;
+import io.gravitee.notifier.api.deferral.Deferrer;
+import io.gravitee.notifier.api.digest.Coalescer;
+import io.gravitee.notifier.api.digest.CoalescingOptions;
+import io.gravitee.notifier.api.exception.NotifierException;
+import io.gravitee.notifier.api.exception.NotifierThrottledException;
+import io.gravitee.notifier.api.execution.BoundedExecutor;
+import io.gravitee.notifier.api.execution.ExecutionOptions;
+import io.gravitee.notifier.api.metrics.NotifierMetrics;
+import io.gravitee.notifier.api.outbox.Outbox;
+import io.gravitee.notifier.api.outbox.OutboxEntry;
+import io.gravitee.notifier.api.ratelimit.RateLimitOptions;
+import io.gravitee.notifier.api.ratelimit.RateLimiter;
+import io.gravitee.notifier.api.retry.Retrier;
+import io.gravitee.notifier.api.retry.RetryPolicy;
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 
 /**
@@ -32,6 +57,47 @@ public abstract class AbstractNotifier implements Notifier {
 
     private final String type;
 
+    /**
+     * Bounds the number of sends in progress, <code>null</code> when sends are not limited.
+     */
+    private volatile BoundedExecutor executor;
+
+    /**
+     * Coalesces repeated notifications into digests, <code>null</code> when notifications are sent one by one.
+     */
+    private volatile Coalescer coalescer;
+
+    /**
+     * Retries failed sends, <code>null</code> when failed sends are not retried.
+     */
+    private volatile Retrier retrier;
+
+    /**
+     * Limits the rate of the sends, <code>null</code> when sends are not rate limited.
+     */
+    private volatile RateLimiter rateLimiter;
+
+    /**
+     * Fails fast when the target of the notifications is unhealthy, <code>null</code> when sends are always attempted.
+     */
+    private volatile CircuitBreaker circuitBreaker;
+
+    /**
+     * Persists the notifications until their send completes, <code>null</code> when notifications are not persisted.
+     */
+    private volatile Outbox outbox;
+
+    /**
+     * Parks the notifications sent outside of their time periods, <code>null</code> when notifications are sent whatever
+     * their time periods.
+     */
+    private volatile Deferrer deferrer;
+
+    /**
+     * Maximum duration of the sends, <code>null</code> when sends have no deadline.
+     */
+    private volatile Duration timeout;
+
     AbstractNotifier(String type) {
         this.type = type;
     }
@@ -42,14 +108,634 @@ public abstract class AbstractNotifier implements Notifier {
 
     @Override
     public CompletableFuture<Void> send(final Notification notification, final Map<String, Object> parameters) {
+        return send(notification, parameters, timeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The timeout covers the whole send, including its retries and its waits for the rate limiter and the executor. Once
+     * the returned future is cancelled or reaches its deadline, no further attempt is made and the future returned by
+     * {@link #doSend(Notification, Map)} for the attempt in progress is cancelled, or completed exceptionally with the
+     * same {@link io.gravitee.notifier.api.exception.NotifierTimeoutException}.
+     *
+     * @param timeout the maximum duration of the send, <code>null</code> to use the timeout of this notifier (see
+     * {@link #setTimeout(Duration)}).
+     */
+    @Override
+    public CompletableFuture<Void> send(final Notification notification, final Map<String, Object> parameters, final Duration timeout) {
         if (canHandle(notification)) {
-            return doSend(notification, parameters);
+            final Deadline deadline = Deadline.start(type, timeout == null ? this.timeout : timeout);
+            final Outbox outbox = this.outbox;
+
+            if (outbox == null) {
+                return deadline.watch(accept(notification, parameters, deadline));
+            }
+
+            final long id;
+            try {
+                id = outbox.append(notification, parameters);
+            } catch (IOException e) {
+                return deadline.watch(
+                    CompletableFuture.failedFuture(new NotifierException("Unable to persist the notification in the outbox", e))
+                );
+            }
+
+            return deadline.watch(acknowledgeOnCompletion(outbox, id, accept(notification, parameters, deadline)));
         }
 
         return completedFuture(null);
     }
 
-    private String getType() {
+    private CompletableFuture<Void> accept(final Notification notification, final Map<String, Object> parameters, final Deadline deadline) {
+        final Deferrer deferrer = this.deferrer;
+
+        if (deferrer != null) {
+            final NotificationRequest request = NotificationRequest.of(notification, parameters);
+            final long releaseTime = deferrer.releaseTime(request);
+
+            if (releaseTime != Deferrer.NOW) {
+                return deferrer.defer(request, releaseTime);
+            }
+        }
+
+        final Coalescer coalescer = this.coalescer;
+
+        if (coalescer != null) {
+            return coalescer.submit(NotificationRequest.of(notification, parameters));
+        }
+
+        return deliver(notification, parameters, deadline);
+    }
+
+    private List<CompletableFuture<Void>> deliverReleased(final List<NotificationRequest> requests) {
+        final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            try {
+                results.add(deliver(request.getNotification(), request.getParameters(), null));
+            } catch (RuntimeException e) {
+                // Thrown synchronously by the send, only fail this notification.
+                results.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return results;
+    }
+
+    private CompletableFuture<Void> acknowledgeOnCompletion(final Outbox outbox, final long id, final CompletableFuture<Void> sent) {
+        // Failures are final once the send completes (retries exhausted, rejected, throttled, invalid configuration, ...),
+        // replaying them would only fail again. Only the sends interrupted by a stop of the node are left to replay.
+        return sent.whenComplete((ignore, throwable) -> {
+            try {
+                outbox.acknowledge(id);
+            } catch (IOException | RuntimeException e) {
+                // At worst, the notification will be sent again on the next replay.
+                logger.warn("Unable to acknowledge the notification [{}] in the outbox of notifier [{}]", id, type, e);
+            }
+        });
+    }
+
+    /**
+     * Sends again the notifications of the outbox of this notifier that were not acknowledged, typically because the
+     * node stopped before they were sent. Only the notifications read back when the outbox was opened are sent again,
+     * not the ones appended since by sends of this run, which may still be in progress (see {@link Outbox#recovered()}).
+     * Notifications of other types, possibly sharing the same outbox, are left untouched. This method should be called
+     * once, when the notifier is started.
+     *
+     * @return the result of each send, empty if this notifier has no outbox.
+     */
+    public List<CompletableFuture<Void>> replayOutbox() throws IOException {
+        final Outbox outbox = this.outbox;
+
+        if (outbox == null) {
+            return Collections.emptyList();
+        }
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (OutboxEntry entry : outbox.recovered()) {
+            final NotificationRequest request = entry.getRequest();
+            if (canHandle(request.getNotification())) {
+                final Deadline deadline = Deadline.start(type, timeout);
+                results.add(
+                    deadline.watch(
+                        acknowledgeOnCompletion(outbox, entry.getId(), accept(request.getNotification(), request.getParameters(), deadline))
+                    )
+                );
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public List<CompletableFuture<Void>> sendBatch(final List<NotificationRequest> requests) {
+        final List<NotificationRequest> handled = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            if (canHandle(request.getNotification())) {
+                handled.add(request);
+            }
+        }
+
+        if (handled.isEmpty()) {
+            final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(completedFuture(null));
+            }
+            return results;
+        }
+
+        final List<CompletableFuture<Void>> sent = persistAndExecuteBatch(handled);
+
+        if (handled.size() == requests.size()) {
+            return sent;
+        }
+
+        // Put back the results of the handled requests at their original position.
+        final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+        int next = 0;
+        for (NotificationRequest request : requests) {
+            if (next < handled.size() && handled.get(next) == request) {
+                results.add(sent.get(next++));
+            } else {
+                results.add(completedFuture(null));
+            }
+        }
+
+        return results;
+    }
+
+    private List<CompletableFuture<Void>> persistAndExecuteBatch(final List<NotificationRequest> requests) {
+        final Outbox outbox = this.outbox;
+
+        if (outbox == null) {
+            return throttleBatch(requests);
+        }
+
+        final long[] ids = new long[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            final NotificationRequest request = requests.get(i);
+            try {
+                ids[i] = outbox.append(request.getNotification(), request.getParameters());
+            } catch (IOException e) {
+                // Nothing is sent, forget the notifications already persisted since the whole batch is reported as failed.
+                for (int j = 0; j < i; j++) {
+                    try {
+                        outbox.acknowledge(ids[j]);
+                    } catch (IOException | RuntimeException ignore) {}
+                }
+
+                final NotifierException failure = new NotifierException("Unable to persist the notification in the outbox", e);
+                final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+                for (int j = 0; j < requests.size(); j++) {
+                    results.add(CompletableFuture.failedFuture(failure));
+                }
+                return results;
+            }
+        }
+
+        final List<CompletableFuture<Void>> sent = throttleBatch(requests);
+        final List<CompletableFuture<Void>> results = new ArrayList<>(sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            results.add(acknowledgeOnCompletion(outbox, ids[i], sent.get(i)));
+        }
+
+        return results;
+    }
+
+    /**
+     * Takes a token for each request of the batch: the requests which can be sent right away are sent together, the ones
+     * delayed by the rate limiter are sent together once the longest of their delays elapsed, and the others are rejected.
+     */
+    private List<CompletableFuture<Void>> throttleBatch(final List<NotificationRequest> requests) {
+        final RateLimiter rateLimiter = this.rateLimiter;
+
+        if (rateLimiter == null) {
+            return executeBatch(requests);
+        }
+
+        final long[] waits = new long[requests.size()];
+        boolean throttled = false;
+        for (int i = 0; i < requests.size(); i++) {
+            waits[i] = rateLimiter.acquire(requests.get(i).getNotification());
+            throttled |= waits[i] != 0;
+        }
+
+        if (!throttled) {
+            return executeBatch(requests);
+        }
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+        final List<NotificationRequest> ready = new ArrayList<>();
+        final List<CompletableFuture<Void>> readyResults = new ArrayList<>();
+        final List<NotificationRequest> delayed = new ArrayList<>();
+        final List<CompletableFuture<Void>> delayedResults = new ArrayList<>();
+        long maxWait = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (waits[i] < 0) {
+                results.add(CompletableFuture.failedFuture(throttled()));
+                continue;
+            }
+
+            final CompletableFuture<Void> result = new CompletableFuture<>();
+            results.add(result);
+            if (waits[i] == 0) {
+                ready.add(requests.get(i));
+                readyResults.add(result);
+            } else {
+                delayed.add(requests.get(i));
+                delayedResults.add(result);
+                maxWait = Math.max(maxWait, waits[i]);
+            }
+        }
+
+        relayBatch(ready, readyResults);
+        if (!delayed.isEmpty()) {
+            HashedWheelTimer.shared().schedule(() -> relayBatch(delayed, delayedResults), maxWait, TimeUnit.NANOSECONDS);
+        }
+
+        return results;
+    }
+
+    private void relayBatch(final List<NotificationRequest> requests, final List<CompletableFuture<Void>> results) {
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        final List<CompletableFuture<Void>> sent;
+        try {
+            sent = executeBatch(requests);
+        } catch (Throwable throwable) {
+            results.forEach(result -> result.completeExceptionally(throwable));
+            return;
+        }
+
+        for (int i = 0; i < sent.size(); i++) {
+            final CompletableFuture<Void> result = results.get(i);
+            sent.get(i).whenComplete((ignore, throwable) -> complete(result, throwable));
+        }
+    }
+
+    private NotifierThrottledException throttled() {
+        return new NotifierThrottledException("Rate limit exceeded for notifier [" + type + "]");
+    }
+
+    private CompletableFuture<Void> deliver(
+        final Notification notification,
+        final Map<String, Object> parameters,
+        final Deadline deadline
+    ) {
+        final Retrier retrier = this.retrier;
+
+        if (retrier == null) {
+            return throttle(notification, parameters, deadline);
+        }
+
+        final CompletableFuture<Void> retried = retrier.execute(() -> throttle(notification, parameters, deadline));
+        // Stop retrying once the send is cancelled or reaches its deadline.
+        return deadline == null ? retried : deadline.abortOnDone(retried);
+    }
+
+    private CompletableFuture<Void> throttle(
+        final Notification notification,
+        final Map<String, Object> parameters,
+        final Deadline deadline
+    ) {
+        final RateLimiter rateLimiter = this.rateLimiter;
+
+        if (rateLimiter == null) {
+            return guard(notification, parameters, deadline);
+        }
+
+        final long wait = rateLimiter.acquire(notification);
+        if (wait < 0) {
+            return CompletableFuture.failedFuture(throttled());
+        } else if (wait == 0) {
+            return guard(notification, parameters, deadline);
+        }
+
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        HashedWheelTimer
+            .shared()
+            .schedule(
+                () -> {
+                    try {
+                        guard(notification, parameters, deadline).whenComplete((ignore, throwable) -> complete(result, throwable));
+                    } catch (Throwable throwable) {
+                        // Thrown synchronously by the send, report it rather than losing it in the timer.
+                        result.completeExceptionally(throwable);
+                    }
+                },
+                wait,
+                TimeUnit.NANOSECONDS
+            );
+        return result;
+    }
+
+    private CompletableFuture<Void> guard(final Notification notification, final Map<String, Object> parameters, final Deadline deadline) {
+        final CircuitBreaker circuitBreaker = this.circuitBreaker;
+
+        if (circuitBreaker == null) {
+            return execute(notification, parameters, deadline);
+        }
+
+        return circuitBreaker.execute(notification, () -> execute(notification, parameters, deadline));
+    }
+
+    private CompletableFuture<Void> execute(
+        final Notification notification,
+        final Map<String, Object> parameters,
+        final Deadline deadline
+    ) {
+        final BoundedExecutor executor = this.executor;
+
+        if (executor == null) {
+            return abortableSend(notification, parameters, deadline);
+        }
+
+        return executor.execute(() -> abortableSend(notification, parameters, deadline));
+    }
+
+    private CompletableFuture<Void> abortableSend(
+        final Notification notification,
+        final Map<String, Object> parameters,
+        final Deadline deadline
+    ) {
+        if (deadline == null) {
+            return instrumentedSend(notification, parameters);
+        }
+
+        if (deadline.isDone()) {
+            // Cancelled or timed out while waiting for the rate limiter, the circuit breaker or the executor.
+            return deadline.aborted();
+        }
+
+        return deadline.abortOnDone(instrumentedSend(notification, parameters));
+    }
+
+    private CompletableFuture<Void> instrumentedSend(final Notification notification, final Map<String, Object> parameters) {
+        final NotifierMetrics metrics = NotifierMetrics.current();
+
+        if (metrics == NotifierMetrics.NOOP) {
+            return doSend(notification, parameters);
+        }
+
+        metrics.sendStarted(type);
+        final long start = System.nanoTime();
+        final CompletableFuture<Void> sent;
+        try {
+            sent = doSend(notification, parameters);
+        } catch (RuntimeException e) {
+            metrics.sendCompleted(type, System.nanoTime() - start, e);
+            throw e;
+        }
+
+        sent.whenComplete((ignore, throwable) -> metrics.sendCompleted(type, System.nanoTime() - start, throwable));
+        return sent;
+    }
+
+    private List<CompletableFuture<Void>> executeBatch(final List<NotificationRequest> requests) {
+        final BoundedExecutor executor = this.executor;
+
+        if (executor == null) {
+            return sendHandledBatch(requests);
+        }
+
+        // The whole batch counts as a single send in flight, the result of each request is relayed once it is started.
+        final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+
+        final AtomicBoolean relayed = new AtomicBoolean();
+        executor
+            .execute(() -> {
+                final List<CompletableFuture<Void>> sent = sendHandledBatch(requests);
+                for (int i = 0; i < sent.size(); i++) {
+                    final CompletableFuture<Void> result = results.get(i);
+                    sent.get(i).whenComplete((ignore, throwable) -> complete(result, throwable));
+                }
+                relayed.set(true);
+                return CompletableFuture.allOf(sent.toArray(new CompletableFuture<?>[0]));
+            })
+            .whenComplete((ignore, throwable) -> {
+                if (throwable != null && !relayed.get()) {
+                    // Rejected or failed before being started.
+                    results.forEach(result -> result.completeExceptionally(throwable));
+                }
+            });
+
+        return results;
+    }
+
+    private List<CompletableFuture<Void>> sendHandledBatch(final List<NotificationRequest> requests) {
+        final NotifierMetrics metrics = NotifierMetrics.current();
+        final boolean instrumented = metrics != NotifierMetrics.NOOP;
+        final long start = System.nanoTime();
+
+        if (instrumented) {
+            for (int i = 0; i < requests.size(); i++) {
+                metrics.sendStarted(type);
+            }
+        }
+
+        final List<CompletableFuture<Void>> sent;
+        try {
+            sent = doSendBatch(requests);
+        } catch (RuntimeException e) {
+            if (instrumented) {
+                final long duration = System.nanoTime() - start;
+                for (int i = 0; i < requests.size(); i++) {
+                    metrics.sendCompleted(type, duration, e);
+                }
+            }
+            throw e;
+        }
+
+        if (sent.size() != requests.size()) {
+            final IllegalStateException mismatch = new IllegalStateException(
+                "Notifier [" + type + "] returned " + sent.size() + " results for " + requests.size() + " requests"
+            );
+            if (instrumented) {
+                final long duration = System.nanoTime() - start;
+                for (int i = 0; i < requests.size(); i++) {
+                    metrics.sendCompleted(type, duration, mismatch);
+                }
+            }
+            throw mismatch;
+        }
+
+        if (instrumented) {
+            // Each request of the batch is measured from the start of the batch to its own completion.
+            for (CompletableFuture<Void> result : sent) {
+                result.whenComplete((ignore, throwable) -> metrics.sendCompleted(type, System.nanoTime() - start, throwable));
+            }
+        }
+
+        return sent;
+    }
+
+    private static void complete(final CompletableFuture<Void> result, final Throwable throwable) {
+        if (throwable != null) {
+            result.completeExceptionally(throwable);
+        } else {
+            result.complete(null);
+        }
+    }
+
+    /**
+     * Bounds the number of sends in progress at the same time for this notifier, <code>null</code> to remove any limit.
+     * Sends already waiting keep being handled according to the previous options.
+     */
+    public void setExecutionOptions(final ExecutionOptions options) {
+        this.executor = options == null ? null : new BoundedExecutor(type, options);
+    }
+
+    /**
+     * Returns the executor bounding the sends of this notifier, mainly to expose its metrics, <code>null</code> if sends
+     * are not limited.
+     */
+    public BoundedExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Coalesces repeated notifications sent to this notifier into digests, <code>null</code> to send notifications one
+     * by one. Notifications sent as a batch are never coalesced. Pending digests are sent when coalescing is disabled
+     * or its options are changed.
+     */
+    public void setCoalescingOptions(final CoalescingOptions options) {
+        final Coalescer previous = this.coalescer;
+        if (options == null) {
+            this.coalescer = null;
+        } else {
+            this.coalescer =
+                new Coalescer(
+                    options,
+                    HashedWheelTimer.shared(),
+                    request -> deliver(request.getNotification(), request.getParameters(), null)
+                );
+        }
+
+        if (previous != null) {
+            previous.flushAll();
+        }
+    }
+
+    /**
+     * Returns the coalescer of this notifier, mainly to expose its metrics, <code>null</code> if notifications are not
+     * coalesced.
+     */
+    public Coalescer getCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Retries the failed sends of this notifier according to the specified policy, <code>null</code> to never retry.
+     * Notifications sent as a batch are not retried.
+     */
+    public void setRetryPolicy(final RetryPolicy policy) {
+        this.retrier = policy == null ? null : new Retrier(policy, HashedWheelTimer.shared());
+    }
+
+    /**
+     * Returns the retrier of this notifier, mainly to expose its metrics, <code>null</code> if failed sends are not
+     * retried.
+     */
+    public Retrier getRetrier() {
+        return retrier;
+    }
+
+    /**
+     * Limits the rate of the sends of this notifier, <code>null</code> to remove any limit. Each notification sent as part
+     * of a batch takes a token: the ones which can be sent right away are sent as a batch, the ones delayed are sent as
+     * another batch once their delays elapsed, and the ones exceeding the limit are rejected.
+     */
+    public void setRateLimitOptions(final RateLimitOptions options) {
+        this.rateLimiter = options == null ? null : new RateLimiter(options);
+    }
+
+    /**
+     * Returns the rate limiter of this notifier, mainly to expose its metrics, <code>null</code> if sends are not rate
+     * limited.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Protects the targets of this notifier with a circuit breaker, <code>null</code> to always attempt to send. Sends
+     * rejected by an open circuit fail fast with a {@link io.gravitee.notifier.api.exception.CircuitBreakerOpenException}.
+     * The duration of a send includes its wait for the executor (see {@link #setExecutionOptions(ExecutionOptions)}),
+     * and each retried attempt goes through the circuit. Notifications sent as a batch do not go through the circuit.
+     */
+    public void setCircuitBreakerOptions(final CircuitBreakerOptions options) {
+        this.circuitBreaker = options == null ? null : new CircuitBreaker(type, options);
+    }
+
+    /**
+     * Returns the circuit breaker of this notifier, mainly to expose the state of its circuits, <code>null</code> if
+     * sends are always attempted.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Defers the notifications sent to this notifier outside of their time periods until one of their periods opens,
+     * <code>null</code> to send notifications whatever their time periods. Released notifications are not coalesced, but
+     * are retried, rate limited and guarded by the circuit breaker like the other sends, so that a window opening for many
+     * notifications does not hit their target at once. Notifications sent as a batch are never deferred. Notifications
+     * still parked are released right away when deferral is disabled or its options are changed.
+     */
+    public void setDeferralOptions(final DeferralOptions options) {
+        final Deferrer previous = this.deferrer;
+        this.deferrer = options == null ? null : new Deferrer(options, HashedWheelTimer.shared(), this::deliverReleased);
+
+        if (previous != null) {
+            previous.releaseAll();
+        }
+    }
+
+    /**
+     * Returns the deferrer of this notifier, mainly to expose its metrics, <code>null</code> if notifications are not
+     * deferred.
+     */
+    public Deferrer getDeferrer() {
+        return deferrer;
+    }
+
+    /**
+     * Sets the maximum duration of the sends of this notifier, <code>null</code> for no deadline. A timeout given to
+     * {@link #send(Notification, Map, Duration)} takes precedence. Notifications coalesced into a digest or deferred are
+     * not aborted when their deadline is reached, only their result is completed. Notifications sent as a batch have no
+     * deadline.
+     */
+    public void setTimeout(final Duration timeout) {
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException("Timeout must be strictly positive");
+        }
+
+        this.timeout = timeout;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Persists the notifications sent to this notifier until their send completes, successfully or not, <code>null</code>
+     * to stop persisting them. The same outbox can be shared by several notifiers. Notifications already persisted are replayed with
+     * {@link #replayOutbox()}.
+     */
+    public void setOutbox(final Outbox outbox) {
+        this.outbox = outbox;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public String getType() {
         return type;
     }
 
@@ -57,5 +743,28 @@ public abstract class AbstractNotifier implements Notifier {
         return null;
     }
 
+    /**
+     * Sends the notification. The returned future is cancelled if the caller cancels the send, and completed exceptionally
+     * with a {@link io.gravitee.notifier.api.exception.NotifierTimeoutException} if the send reaches its deadline:
+     * implementations should watch it to abort the underlying I/O and release its resources.
+     */
     protected abstract CompletableFuture<Void> doSend(final Notification notification, final Map<String, Object> parameters);
+
+    /**
+     * Sends a batch of notifications this notifier is able to handle. Notifiers can override this method to share the
+     * cost of sending among the requests (connections, compiled templates, pipelining, ...). By default, each request is
+     * sent on its own using {@link #doSend(Notification, Map)}.
+     *
+     * @param requests the notifications to send along with their parameters.
+     * @return the result of each send, in the same order as the requests.
+     */
+    protected List<CompletableFuture<Void>> doSendBatch(final List<NotificationRequest> requests) {
+        final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+
+        for (NotificationRequest request : requests) {
+            results.add(doSend(request.getNotification(), request.getParameters()));
+        }
+
+        return results;
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Immutable, pre-computed form of a {@link Period} evaluated directly from epoch milliseconds.
+ *
+ * Days are kept as a bitmask, the zone rules are resolved once and the bounds are stored as milliseconds of the day, so
+ * that {@link #isIncluded(long)} does not allocate. Contrary to {@link Period#isIncluded(java.time.LocalDateTime)} in its
+ * original form, the offset of the zone is the one at the evaluated instant, which keeps results correct across daylight
+ * saving time changes.
+ *
+ * @author GraviteeSource Team
+ */
+public final class CompiledPeriod {
+
+    static final int ALL_DAYS = 0b111_1111;
+
+    static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final ZoneId zoneId;
+
+    private final ZoneOffsetResolver offsets;
+
+    /**
+     * Bit <code>n</code> is set when the day of week of value <code>n + 1</code> (see {@link DayOfWeek#getValue()}) is covered.
+     */
+    private final int days;
+
+    private final int beginMillis;
+
+    private final int endMillis;
+
+    CompiledPeriod(ZoneId zoneId, int days, int beginHour, int endHour) {
+        this.zoneId = zoneId;
+        this.offsets = new ZoneOffsetResolver(zoneId);
+        this.days = days;
+        this.beginMillis = beginHour * 1000;
+        this.endMillis = endHour * 1000;
+    }
+
+    public static CompiledPeriod of(Period period) {
+        return new CompiledPeriod(ZoneId.of(period.getZoneId()), daysMask(period.getDays()), period.getBeginHour(), period.getEndHour());
+    }
+
+    static int daysMask(List<Integer> days) {
+        if (days == null) {
+            return ALL_DAYS;
+        }
+
+        int mask = 0;
+        for (Integer day : days) {
+            if (day != null && day >= 1 && day <= 7) {
+                mask |= 1 << (day - 1);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Indicates if the specified timestamp is included in this period.
+     *
+     * @param timestamp the number of milliseconds since the epoch.
+     * @return <code>true</code> if the timestamp is included, <code>false</code> else.
+     */
+    public boolean isIncluded(long timestamp) {
+        final long local = timestamp + offsets.offsetMillis(timestamp);
+        final long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+
+        // The epoch day 0 (1970-01-01) was a thursday.
+        final int dayOfWeek = Math.floorMod(epochDay + 3, 7);
+        if ((days & (1 << dayOfWeek)) == 0) {
+            return false;
+        }
+
+        final int millisOfDay = (int) (local - epochDay * MILLIS_PER_DAY);
+        return millisOfDay >= beginMillis && millisOfDay <= endMillis;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getBeginMillis() {
+        return beginMillis;
+    }
+
+    public int getEndMillis() {
+        return endMillis;
+    }
+
+    ZoneOffsetResolver offsets() {
+        return offsets;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "CompiledPeriod{" +
+            "zoneId=" +
+            zoneId +
+            ", days=" +
+            Integer.toBinaryString(days) +
+            ", beginMillis=" +
+            beginMillis +
+            ", endMillis=" +
+            endMillis +
+            '}'
+        );
+    }
+}
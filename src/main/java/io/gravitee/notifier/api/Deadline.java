@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import io.gravitee.notifier.api.exception.NotifierTimeoutException;
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the result of a send, handed back to the caller, so that cancelling it or reaching its deadline aborts the
+ * stages of the send still in progress, down to the future returned by the plugin.
+ *
+ * Deadlines are enforced by the shared {@link HashedWheelTimer}: a deadline costs one timer slot, released as soon as
+ * the send completes.
+ *
+ * @author GraviteeSource Team
+ */
+final class Deadline {
+
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    private Deadline() {}
+
+    /**
+     * Starts tracking a send.
+     *
+     * @param timeout the maximum duration of the send, <code>null</code> if the send has no deadline.
+     */
+    static Deadline start(final String type, final Duration timeout) {
+        final Deadline deadline = new Deadline();
+
+        if (timeout != null) {
+            final HashedWheelTimer.Timeout expiration = HashedWheelTimer
+                .shared()
+                .schedule(
+                    () -> deadline.result.completeExceptionally(new NotifierTimeoutException(type, timeout)),
+                    timeout.toNanos(),
+                    TimeUnit.NANOSECONDS
+                );
+            deadline.result.whenComplete((ignore, throwable) -> expiration.cancel());
+        }
+
+        return deadline;
+    }
+
+    /**
+     * Completes the specified future exceptionally if it is still running when the deadline is reached.
+     */
+    static CompletableFuture<Void> orTimeout(final CompletableFuture<Void> sent, final String type, final Duration timeout) {
+        if (timeout == null || sent.isDone()) {
+            return sent;
+        }
+
+        final HashedWheelTimer.Timeout expiration = HashedWheelTimer
+            .shared()
+            .schedule(
+                () -> sent.completeExceptionally(new NotifierTimeoutException(type, timeout)),
+                timeout.toNanos(),
+                TimeUnit.NANOSECONDS
+            );
+        sent.whenComplete((ignore, throwable) -> expiration.cancel());
+        return sent;
+    }
+
+    /**
+     * Relays the outcome of the send to the result handed back to the caller.
+     *
+     * @return the result of the send, which can be cancelled by the caller.
+     */
+    CompletableFuture<Void> watch(final CompletableFuture<Void> sent) {
+        sent.whenComplete((ignore, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(null);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Aborts the specified stage of the send if the result is cancelled or reaches its deadline before the stage completes.
+     * A cancelled result cancels the stage, a result having reached its deadline completes it with the same
+     * {@link NotifierTimeoutException}.
+     */
+    <T> CompletableFuture<T> abortOnDone(final CompletableFuture<T> stage) {
+        if (!stage.isDone()) {
+            result.whenComplete((ignore, throwable) -> {
+                if (throwable instanceof CancellationException) {
+                    stage.cancel(true);
+                } else if (throwable != null) {
+                    stage.completeExceptionally(throwable);
+                }
+            });
+        }
+        return stage;
+    }
+
+    /**
+     * Indicates that the result is already cancelled or has reached its deadline, so the send should not go any further.
+     */
+    boolean isDone() {
+        return result.isDone();
+    }
+
+    /**
+     * Returns a future failed with the reason the send was aborted.
+     */
+    CompletableFuture<Void> aborted() {
+        return result.isCancelled()
+            ? CompletableFuture.failedFuture(new CancellationException("Send cancelled"))
+            : CompletableFuture.failedFuture(result.exceptionNow());
+    }
+}
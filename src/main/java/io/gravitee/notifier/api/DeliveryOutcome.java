@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * The outcome of the delivery of a notification.
+ *
+ * @author GraviteeSource Team
+ */
+public final class DeliveryOutcome {
+
+    private final NotificationRequest request;
+
+    private final Throwable failure;
+
+    private DeliveryOutcome(NotificationRequest request, Throwable failure) {
+        this.request = request;
+        this.failure = failure;
+    }
+
+    public static DeliveryOutcome success(NotificationRequest request) {
+        return new DeliveryOutcome(request, null);
+    }
+
+    public static DeliveryOutcome failure(NotificationRequest request, Throwable failure) {
+        // Futures wrap the actual failure when it happens in a dependent stage.
+        final Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return new DeliveryOutcome(request, cause);
+    }
+
+    public NotificationRequest getRequest() {
+        return request;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliveryOutcome{" + "request=" + request + ", failure=" + failure + '}';
+    }
+}
@@ -15,13 +15,19 @@
  */
 package io.gravitee.notifier.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRawValue;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
-import io.gravitee.notifier.api.jackson.RawJsonDeserializer;
+import io.gravitee.notifier.api.jackson.PeriodsDeserializer;
+import io.gravitee.notifier.api.jackson.RawJson;
+import io.gravitee.notifier.api.jackson.RawJsonValueDeserializer;
+import io.gravitee.notifier.api.metrics.NotifierMetrics;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -30,13 +36,35 @@ import java.util.List;
  */
 public class Notification implements Serializable {
 
+    private static final long serialVersionUID = -7802888934356556884L;
+
+    /**
+     * The serialized form, unchanged since the configuration was a plain string.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("type", String.class),
+        new ObjectStreamField("periods", List.class),
+        new ObjectStreamField("configuration", String.class),
+    };
+
     private String type;
 
+    /**
+     * The time periods. They can be shared with other notifications, see {@link PeriodsDeserializer#INTERN_ATTRIBUTE}.
+     */
+    @JsonDeserialize(using = PeriodsDeserializer.class)
     private List<Period> periods;
 
-    @JsonDeserialize(using = RawJsonDeserializer.class)
+    /**
+     * The raw JSON configuration of the notifier. It can be kept undecoded until first read, see
+     * {@link RawJsonValueDeserializer#LAZY_ATTRIBUTE}.
+     */
+    @JsonProperty("configuration")
+    @JsonDeserialize(using = RawJsonValueDeserializer.class)
     @JsonRawValue
-    private String configuration;
+    private RawJson configuration;
+
+    private transient volatile Periods.Snapshot schedule;
 
     /**
      * Indicates if the specified timestamp matches with one of the time periods defined for this notification.
@@ -45,15 +73,39 @@ public class Notification implements Serializable {
      * @return <code>true</code> if the timestamp matches one of the time periods, <code>false</code> else.
      */
     public boolean canNotify(long timestamp) {
-        final List<Period> periods = this.getPeriods();
-
-        if (periods == null || periods.isEmpty()) {
-            return true;
+        final boolean eligible = schedule().isEligible(timestamp);
+        if (type != null) {
+            NotifierMetrics.current().filtered(type, eligible);
         }
+        return eligible;
+    }
+
+    /**
+     * Returns the first instant, starting from the specified timestamp, at which this notification can be sent.
+     *
+     * @param timestamp the timestamp to start looking from.
+     * @return the timestamp itself if the notification can be sent right now, the timestamp at which one of the time
+     * periods opens next or {@link Schedule#NEVER} if the time periods never match.
+     */
+    public long nextNotificationTime(long timestamp) {
+        return schedule().nextEligibleTime(timestamp);
+    }
+
+    /**
+     * Returns the time periods of this notification merged into a single weekly schedule. The schedule is computed once,
+     * and computed again only if the periods are replaced or modified, either through their setters or by adding, removing
+     * or replacing periods in their list. Checking it costs nothing for interned periods, which can not be modified.
+     * Notifications having equivalent periods share the same schedule.
+     */
+    public Schedule schedule() {
+        Periods.Snapshot schedule = this.schedule;
 
-        final LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC);
+        if (schedule == null || !schedule.matches(periods)) {
+            schedule = Periods.snapshot(periods);
+            this.schedule = schedule;
+        }
 
-        return periods.stream().anyMatch(period -> period.isIncluded(localDateTime));
+        return schedule.schedule();
     }
 
     public String getType() {
@@ -64,11 +116,25 @@ public class Notification implements Serializable {
         this.type = type;
     }
 
+    @JsonIgnore
     public String getConfiguration() {
-        return configuration;
+        return configuration == null ? null : configuration.toString();
     }
 
+    @JsonIgnore
     public void setConfiguration(String configuration) {
+        this.configuration = RawJson.of(configuration);
+    }
+
+    /**
+     * Returns the raw configuration, which may not have been decoded yet.
+     */
+    public RawJson rawConfiguration() {
+        return configuration;
+    }
+
+    @JsonIgnore
+    public void setRawConfiguration(RawJson configuration) {
         this.configuration = configuration;
     }
 
@@ -76,7 +142,28 @@ public class Notification implements Serializable {
         return periods;
     }
 
+    /**
+     * Replaces the time periods. Large sets of notifications built with the same periods should use
+     * {@link Periods#intern(List)} to share them.
+     */
     public void setPeriods(List<Period> periods) {
         this.periods = periods;
+        this.schedule = null;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        final ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("type", type);
+        fields.put("periods", periods);
+        fields.put("configuration", getConfiguration());
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        final ObjectInputStream.GetField fields = in.readFields();
+        type = (String) fields.get("type", null);
+        periods = (List<Period>) fields.get("periods", null);
+        configuration = RawJson.of((String) fields.get("configuration", null));
     }
 }
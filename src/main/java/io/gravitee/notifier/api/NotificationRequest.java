@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A notification to send along with the parameters used to build its content.
+ *
+ * @author GraviteeSource Team
+ */
+public final class NotificationRequest {
+
+    private final Notification notification;
+
+    private final Map<String, Object> parameters;
+
+    public NotificationRequest(Notification notification, Map<String, Object> parameters) {
+        this.notification = Objects.requireNonNull(notification, "Notification is required");
+        this.parameters = parameters;
+    }
+
+    public static NotificationRequest of(Notification notification, Map<String, Object> parameters) {
+        return new NotificationRequest(notification, parameters);
+    }
+
+    public Notification getNotification() {
+        return notification;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationRequest{" + "type=" + notification.getType() + '}';
+    }
+}
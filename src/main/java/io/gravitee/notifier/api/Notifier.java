@@ -15,9 +15,54 @@
  */
 package io.gravitee.notifier.api;
 
+import io.gravitee.notifier.api.stream.NotifierProcessor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 public interface Notifier {
     CompletableFuture<Void> send(Notification notification, Map<String, Object> parameters);
+
+    /**
+     * Sends a notification which must be sent within the specified timeout. Once the timeout elapses, the returned future
+     * is completed exceptionally with a {@link io.gravitee.notifier.api.exception.NotifierTimeoutException}. Cancelling the
+     * returned future, or reaching its deadline, is propagated to the send in progress so that it can be aborted.
+     *
+     * @param timeout the maximum duration of the send, <code>null</code> for no deadline.
+     */
+    default CompletableFuture<Void> send(Notification notification, Map<String, Object> parameters, Duration timeout) {
+        return Deadline.orTimeout(send(notification, parameters), notification.getType(), timeout);
+    }
+
+    /**
+     * Sends a batch of notifications, typically the recipients of the same event.
+     *
+     * @param requests the notifications to send along with their parameters.
+     * @return the result of each send, in the same order as the requests.
+     */
+    default List<CompletableFuture<Void>> sendBatch(List<NotificationRequest> requests) {
+        final List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+
+        for (NotificationRequest request : requests) {
+            results.add(send(request.getNotification(), request.getParameters()));
+        }
+
+        return results;
+    }
+
+    /**
+     * Sends the notifications published by the specified publisher, at the pace the notifier is able to deliver them.
+     *
+     * @param requests the notifications to send along with their parameters.
+     * @param maxInFlight the maximum number of notifications being delivered at the same time.
+     * @return a publisher of the outcome of each delivery, in completion order.
+     */
+    default Flow.Publisher<DeliveryOutcome> stream(Flow.Publisher<NotificationRequest> requests, int maxInFlight) {
+        final NotifierProcessor processor = new NotifierProcessor(this, maxInFlight);
+        requests.subscribe(processor);
+        return processor;
+    }
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import io.gravitee.notifier.api.exception.UnknownNotifierException;
+import io.gravitee.notifier.api.fanout.FanOutOptions;
+import io.gravitee.notifier.api.fanout.FanOutResult;
+import io.gravitee.notifier.api.render.TemplateData;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps track of the available notifiers indexed by their type, and routes each notification straight to the notifier
+ * able to handle it.
+ *
+ * Notifiers can be registered and unregistered at any time (e.g. when plugins are deployed or undeployed), dispatching
+ * never locks.
+ *
+ * @author GraviteeSource Team
+ */
+public class NotifierRegistry {
+
+    private static final FanOutOptions DEFAULT_FAN_OUT_OPTIONS = new FanOutOptions.Builder().build();
+
+    private final Map<String, Notifier> notifiers = new ConcurrentHashMap<>();
+
+    private final LongAdder unroutable = new LongAdder();
+
+    /**
+     * Registers a notifier for the specified type, replacing the one previously registered if any.
+     *
+     * @return the notifier previously registered for this type, <code>null</code> if none.
+     */
+    public Notifier register(String type, Notifier notifier) {
+        return notifiers.put(type, notifier);
+    }
+
+    public Notifier register(AbstractNotifier notifier) {
+        return register(notifier.getType(), notifier);
+    }
+
+    /**
+     * Unregisters the notifier of the specified type.
+     *
+     * @return the notifier which was registered for this type, <code>null</code> if none.
+     */
+    public Notifier unregister(String type) {
+        return notifiers.remove(type);
+    }
+
+    /**
+     * Unregisters the notifier only if it is still the one registered for the specified type.
+     */
+    public boolean unregister(String type, Notifier notifier) {
+        return notifiers.remove(type, notifier);
+    }
+
+    public Notifier get(String type) {
+        return type == null ? null : notifiers.get(type);
+    }
+
+    public Set<String> types() {
+        return Collections.unmodifiableSet(notifiers.keySet());
+    }
+
+    /**
+     * Sends the notification using the notifier registered for its type.
+     *
+     * @return the result of the send, completed exceptionally with an {@link UnknownNotifierException} if no notifier
+     * is registered for the type of the notification.
+     */
+    public CompletableFuture<Void> dispatch(Notification notification, Map<String, Object> parameters) {
+        return dispatch(notification, parameters, null);
+    }
+
+    /**
+     * Sends the notification using the notifier registered for its type, within the specified timeout.
+     *
+     * @param timeout the maximum duration of the send, <code>null</code> to use the timeout of the notifier, if any.
+     * @see Notifier#send(Notification, Map, Duration)
+     */
+    public CompletableFuture<Void> dispatch(Notification notification, Map<String, Object> parameters, Duration timeout) {
+        final Notifier notifier = get(notification.getType());
+
+        if (notifier == null) {
+            unroutable.increment();
+            return CompletableFuture.failedFuture(new UnknownNotifierException(notification.getType()));
+        }
+
+        return notifier.send(notification, parameters, timeout);
+    }
+
+    /**
+     * Sends the notifications, grouped by type, using the batch capabilities of the registered notifiers.
+     *
+     * @return the result of each send, in the same order as the requests.
+     */
+    public List<CompletableFuture<Void>> dispatchBatch(List<NotificationRequest> requests) {
+        final Map<String, List<Integer>> positionsByType = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            final String type = requests.get(i).getNotification().getType();
+            positionsByType.computeIfAbsent(type, key -> new ArrayList<>()).add(i);
+        }
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+
+        positionsByType.forEach((type, positions) -> {
+            final Notifier notifier = get(type);
+
+            if (notifier == null) {
+                unroutable.add(positions.size());
+                final CompletableFuture<Void> failure = CompletableFuture.failedFuture(new UnknownNotifierException(type));
+                positions.forEach(position -> results.set(position, failure));
+                return;
+            }
+
+            final List<NotificationRequest> batch = new ArrayList<>(positions.size());
+            positions.forEach(position -> batch.add(requests.get(position)));
+
+            final List<CompletableFuture<Void>> sent = notifier.sendBatch(batch);
+            for (int i = 0; i < positions.size(); i++) {
+                results.set(positions.get(i), sent.get(i));
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * Fans out an event to many notifications, with the default options.
+     *
+     * @see #fanOut(Collection, Map, long, FanOutOptions)
+     */
+    public FanOutResult fanOut(Collection<Notification> notifications, Map<String, Object> parameters, long timestamp) {
+        return fanOut(notifications, parameters, timestamp, DEFAULT_FAN_OUT_OPTIONS);
+    }
+
+    /**
+     * Sends an event to all the notifications within their time periods at the specified time.
+     *
+     * The time periods of the notifications are evaluated in parallel when there are many of them. The notifications are
+     * then grouped by type and handed over to their notifier in batches, each batch being sent from the executor of the
+     * options, so that the rendering and the sending of the notifications are spread over several threads. The
+     * parameters are shared by all the notifications as a {@link TemplateData}: each value is wrapped for the templates
+     * only once, and each distinct template is only rendered once.
+     *
+     * @param notifications the notifications subscribed to the event.
+     * @param parameters the parameters of the event.
+     * @param timestamp the time of the event, to evaluate the time periods of the notifications against.
+     * @return the result of each notification, in the order of the notifications.
+     */
+    public FanOutResult fanOut(
+        Collection<Notification> notifications,
+        Map<String, Object> parameters,
+        long timestamp,
+        FanOutOptions options
+    ) {
+        final List<Notification> subscriptions = new ArrayList<>(notifications);
+        final TemplateData data = TemplateData.of(parameters);
+        final int size = subscriptions.size();
+
+        final boolean[] eligible = new boolean[size];
+        IntStream indexes = IntStream.range(0, size);
+        if (size >= options.getParallelismThreshold()) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> eligible[i] = subscriptions.get(i).canNotify(timestamp));
+
+        final Map<String, List<Integer>> positionsByType = new LinkedHashMap<>();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (eligible[i]) {
+                positionsByType.computeIfAbsent(subscriptions.get(i).getType(), key -> new ArrayList<>()).add(i);
+                count++;
+            }
+        }
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>(Collections.nCopies(size, null));
+
+        positionsByType.forEach((type, positions) -> {
+            final Notifier notifier = get(type);
+
+            if (notifier == null) {
+                unroutable.add(positions.size());
+                final CompletableFuture<Void> failure = CompletableFuture.failedFuture(new UnknownNotifierException(type));
+                positions.forEach(position -> results.set(position, failure));
+                return;
+            }
+
+            for (int from = 0; from < positions.size(); from += options.getBatchSize()) {
+                final List<NotificationRequest> batch = new ArrayList<>();
+                final List<CompletableFuture<Void>> batchResults = new ArrayList<>();
+
+                for (int position : positions.subList(from, Math.min(positions.size(), from + options.getBatchSize()))) {
+                    final CompletableFuture<Void> result = new CompletableFuture<>();
+                    batch.add(NotificationRequest.of(subscriptions.get(position), data));
+                    batchResults.add(result);
+                    results.set(position, result);
+                }
+
+                sendAsync(notifier, batch, batchResults, options.getExecutor());
+            }
+        });
+
+        return new FanOutResult(subscriptions, results, count);
+    }
+
+    private static void sendAsync(
+        Notifier notifier,
+        List<NotificationRequest> batch,
+        List<CompletableFuture<Void>> results,
+        Executor executor
+    ) {
+        try {
+            executor.execute(() -> {
+                try {
+                    final List<CompletableFuture<Void>> sent = notifier.sendBatch(batch);
+                    for (int i = 0; i < results.size(); i++) {
+                        final CompletableFuture<Void> result = results.get(i);
+                        sent
+                            .get(i)
+                            .whenComplete((ignore, throwable) -> {
+                                if (throwable != null) {
+                                    result.completeExceptionally(throwable);
+                                } else {
+                                    result.complete(null);
+                                }
+                            });
+                    }
+                } catch (Throwable throwable) {
+                    results.forEach(result -> result.completeExceptionally(throwable));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            results.forEach(result -> result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Returns the number of notifications which have been dispatched without any notifier registered for their type.
+     */
+    public long unroutable() {
+        return unroutable.sum();
+    }
+}
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.time.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Jeoffrey HAEYAERT (jeoffrey.haeyaert at graviteesource.com)
@@ -27,10 +28,18 @@ import java.util.List;
  */
 public class Period implements Serializable {
 
+    private static final long serialVersionUID = 722749438429011670L;
+
     private static final String DEFAULT_ZONE_ID = ZoneId.systemDefault().getId();
     private static final int DEFAULT_BEGIN_HOUR = 0;
     private static final int DEFAULT_END_HOURS = 86399;
 
+    /**
+     * Number of modifications made to any period, which tells cheaply if periods may have changed since a schedule was
+     * computed from them.
+     */
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
+
     /**
      * List of the days covered by this period of time.
      * See {@link DayOfWeek#getValue()}.
@@ -53,6 +62,8 @@ public class Period implements Serializable {
      */
     private int endHour;
 
+    private transient volatile CompiledPeriod compiled;
+
     @JsonCreator
     protected Period(
         @JsonProperty(value = "days") List<Integer> days,
@@ -66,26 +77,44 @@ public class Period implements Serializable {
         this.endHour = endHour == null ? DEFAULT_END_HOURS : endHour;
     }
 
+    /**
+     * Indicates if the specified date time, expressed in the system default zone, is included in this period.
+     */
     public boolean isIncluded(LocalDateTime dateTime) {
-        final ZoneId zoneId = ZoneId.of(getZoneId());
+        return isIncluded(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
 
-        // First set the local notification timestamp at the expected timezone.
-        final ZonedDateTime zonedDateTime = dateTime.atZone(ZoneOffset.systemDefault()).withZoneSameInstant(zoneId);
+    /**
+     * Indicates if the specified timestamp is included in this period.
+     *
+     * @param timestamp the number of milliseconds since the epoch.
+     * @return <code>true</code> if the timestamp is included, <code>false</code> else.
+     */
+    public boolean isIncluded(long timestamp) {
+        return compile().isIncluded(timestamp);
+    }
 
-        if (days != null && !days.contains(zonedDateTime.getDayOfWeek().getValue())) {
-            // Notification is outside of the wanted notification days.
-            return false;
+    /**
+     * Returns the compiled form of this period, computed once and invalidated when the period is modified.
+     */
+    public CompiledPeriod compile() {
+        CompiledPeriod compiled = this.compiled;
+
+        if (compiled == null) {
+            compiled = CompiledPeriod.of(this);
+            this.compiled = compiled;
         }
 
-        final OffsetTime time = zonedDateTime.toOffsetDateTime().toOffsetTime();
-        final OffsetTime begin = OffsetTime.of(LocalTime.ofSecondOfDay(beginHour), zoneId.getRules().getOffset(Instant.now()));
-        final OffsetTime end = OffsetTime.of(LocalTime.ofSecondOfDay(endHour), zoneId.getRules().getOffset(Instant.now()));
+        return compiled;
+    }
 
-        return isBetween(time, begin, end);
+    static long modifications() {
+        return MODIFICATIONS.get();
     }
 
-    private boolean isBetween(OffsetTime time, OffsetTime begin, OffsetTime end) {
-        return time.isEqual(begin) || (time.isAfter(begin) && (time.isBefore(end) || time.isEqual(end)));
+    private void modified() {
+        this.compiled = null;
+        MODIFICATIONS.incrementAndGet();
     }
 
     public List<Integer> getDays() {
@@ -94,6 +123,7 @@ public class Period implements Serializable {
 
     public void setDays(List<Integer> days) {
         this.days = days;
+        modified();
     }
 
     public String getZoneId() {
@@ -102,6 +132,7 @@ public class Period implements Serializable {
 
     public void setZoneId(String zoneId) {
         this.zoneId = zoneId;
+        modified();
     }
 
     public int getBeginHour() {
@@ -110,6 +141,7 @@ public class Period implements Serializable {
 
     public void setBeginHour(int beginHour) {
         this.beginHour = beginHour;
+        modified();
     }
 
     public int getEndHour() {
@@ -118,6 +150,7 @@ public class Period implements Serializable {
 
     public void setEndHour(int endHour) {
         this.endHour = endHour;
+        modified();
     }
 
     @Override
@@ -125,6 +158,38 @@ public class Period implements Serializable {
         return "Period{" + "days=" + days + ", zoneId='" + zoneId + '\'' + ", beginHour=" + beginHour + ", endHour=" + endHour + '}';
     }
 
+    /**
+     * A shared period, which can not be modified, see {@link Periods#intern(List)}.
+     */
+    static final class Interned extends Period {
+
+        private static final long serialVersionUID = 1L;
+
+        Interned(List<Integer> days, String zoneId, int beginHour, int endHour) {
+            super(days, zoneId, beginHour, endHour);
+        }
+
+        @Override
+        public void setDays(List<Integer> days) {
+            throw new UnsupportedOperationException("Interned periods can not be modified");
+        }
+
+        @Override
+        public void setZoneId(String zoneId) {
+            throw new UnsupportedOperationException("Interned periods can not be modified");
+        }
+
+        @Override
+        public void setBeginHour(int beginHour) {
+            throw new UnsupportedOperationException("Interned periods can not be modified");
+        }
+
+        @Override
+        public void setEndHour(int endHour) {
+            throw new UnsupportedOperationException("Interned periods can not be modified");
+        }
+    }
+
     public static class Builder {
 
         private List<Integer> days;
@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import io.gravitee.notifier.api.cache.BoundedCache;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Canonical instances of time periods and schedules.
+ *
+ * Large sets of notifications usually share a handful of distinct time periods (business hours in a given zone, week
+ * days, ...). Interning their periods with {@link #intern(List)} makes all of them hold the same immutable instances,
+ * and equivalent sets of periods always share the same {@link Schedule} (see {@link Schedule#of(Collection)}), along
+ * with its cached eligibility.
+ *
+ * Both caches are bounded, see the <code>gravitee.notifier.periods.cache.size</code> and
+ * <code>gravitee.notifier.schedules.cache.size</code> system properties: once full, less used entries are evicted,
+ * which only means that they are no longer shared.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Periods {
+
+    private static final int DEFAULT_PERIODS_CACHE_SIZE = 10_000;
+    private static final int DEFAULT_SCHEDULES_CACHE_SIZE = 10_000;
+
+    /**
+     * Interned lists of periods, keyed by the ordered list of the keys of their periods.
+     */
+    private static final BoundedCache<List<Key>, List<Period>> PERIODS = new BoundedCache<>(
+        Integer.getInteger("gravitee.notifier.periods.cache.size", DEFAULT_PERIODS_CACHE_SIZE)
+    );
+
+    /**
+     * Shared schedules, keyed by the sorted, distinct keys of their periods since neither the order nor duplicates
+     * change a schedule.
+     */
+    private static final BoundedCache<List<Key>, Schedule> SCHEDULES = new BoundedCache<>(
+        Integer.getInteger("gravitee.notifier.schedules.cache.size", DEFAULT_SCHEDULES_CACHE_SIZE)
+    );
+
+    private Periods() {}
+
+    /**
+     * Returns the canonical, unmodifiable, instance of the specified list of periods. The periods of the returned list are
+     * shared and can not be modified: their setters throw an {@link UnsupportedOperationException}. Their days are
+     * normalized (sorted, without duplicates nor invalid values), which does not change their meaning.
+     *
+     * @return the canonical list, or the list itself if it is <code>null</code> or holds <code>null</code> periods.
+     */
+    public static List<Period> intern(List<Period> periods) {
+        if (periods == null) {
+            return null;
+        }
+
+        // Immutable lists throw when looking for null, hence the loop.
+        for (Period period : periods) {
+            if (period == null) {
+                return periods;
+            }
+        }
+
+        if (periods.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Key> keys = keys(periods);
+        final List<Period> interned = PERIODS.getIfPresent(keys);
+        if (interned != null) {
+            return interned;
+        }
+
+        final List<Period> canonical = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            canonical.add(key.toPeriod());
+        }
+
+        return PERIODS.put(keys, new InternedList(canonical.toArray(new Period[0])));
+    }
+
+    /**
+     * Returns the schedule shared by all the sets of periods equivalent to the specified ones.
+     */
+    static Schedule schedule(Collection<Period> periods) {
+        final List<Key> keys = keys(periods);
+        keys.sort(null);
+
+        // Remove the duplicates, now contiguous.
+        int distinct = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            if (i == 0 || !keys.get(i).equals(keys.get(distinct - 1))) {
+                keys.set(distinct++, keys.get(i));
+            }
+        }
+
+        final List<Key> key = distinct == keys.size() ? keys : new ArrayList<>(keys.subList(0, distinct));
+        return SCHEDULES.get(key, ignore -> Schedule.create(periods));
+    }
+
+    /**
+     * Returns the schedule of the specified periods, along with their current definition to detect later modifications.
+     */
+    static Snapshot snapshot(Collection<Period> periods) {
+        // Read before looking at the periods, so that a concurrent modification is detected by the next check.
+        final long modifications = Period.modifications();
+        final Schedule schedule = Schedule.of(periods);
+
+        if (periods == null || periods == Collections.<Period>emptyList() || periods instanceof InternedList) {
+            return new Snapshot(schedule, periods, null, modifications);
+        }
+
+        return new Snapshot(schedule, periods, periods.toArray(new Period[0]), modifications);
+    }
+
+    /**
+     * Returns the number of distinct lists of periods currently interned.
+     */
+    public static int internedPeriods() {
+        return PERIODS.size();
+    }
+
+    /**
+     * Returns the number of distinct schedules currently shared.
+     */
+    public static int sharedSchedules() {
+        return SCHEDULES.size();
+    }
+
+    private static List<Key> keys(Collection<Period> periods) {
+        final List<Key> keys = new ArrayList<>(periods.size());
+        for (Period period : periods) {
+            keys.add(new Key(period));
+        }
+        return keys;
+    }
+
+    /**
+     * The schedule of a set of periods, computed from the definition the periods had when the snapshot was taken.
+     */
+    static final class Snapshot {
+
+        private final Schedule schedule;
+
+        private final Collection<Period> source;
+
+        /**
+         * The periods of the source in their iteration order, <code>null</code> when the source can not be modified.
+         */
+        private final Period[] periods;
+
+        /**
+         * The number of modifications made to any period when the snapshot was taken, see {@link Period#modifications()}.
+         */
+        private final long modifications;
+
+        private Snapshot(Schedule schedule, Collection<Period> source, Period[] periods, long modifications) {
+            this.schedule = schedule;
+            this.source = source;
+            this.periods = periods;
+            this.modifications = modifications;
+        }
+
+        Schedule schedule() {
+            return schedule;
+        }
+
+        /**
+         * Indicates if the specified periods are still the ones the snapshot was taken from, i.e. if neither the periods
+         * (through their setters) nor their list have been modified since. Interned lists are never checked, the other
+         * ones are compared by identity.
+         */
+        boolean matches(Collection<Period> periods) {
+            if (this.periods == null) {
+                return periods == source;
+            }
+            if (periods == null || Period.modifications() != modifications || periods.size() != this.periods.length) {
+                return false;
+            }
+
+            int i = 0;
+            for (Period period : periods) {
+                if (period != this.periods[i++]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An interned list of periods, which can not be modified.
+     */
+    private static final class InternedList extends AbstractList<Period> implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Period[] periods;
+
+        private InternedList(Period[] periods) {
+            this.periods = periods;
+        }
+
+        @Override
+        public Period get(int index) {
+            return periods[index];
+        }
+
+        @Override
+        public int size() {
+            return periods.length;
+        }
+    }
+
+    /**
+     * The definition of a period, independent from the representation of its days.
+     */
+    private static final class Key implements Comparable<Key> {
+
+        private static final int NO_DAYS = -1;
+
+        private final String zoneId;
+
+        /**
+         * The days as a bitmask, {@link #NO_DAYS} when the period has no list of days (i.e. covers all the days).
+         */
+        private final int days;
+
+        private final int beginHour;
+
+        private final int endHour;
+
+        private Key(Period period) {
+            this.zoneId = period.getZoneId();
+            this.days = period.getDays() == null ? NO_DAYS : CompiledPeriod.daysMask(period.getDays());
+            this.beginHour = period.getBeginHour();
+            this.endHour = period.getEndHour();
+        }
+
+        private Period toPeriod() {
+            List<Integer> days = null;
+
+            if (this.days != NO_DAYS) {
+                days = new ArrayList<>(Integer.bitCount(this.days));
+                for (int day = 1; day <= 7; day++) {
+                    if ((this.days & (1 << (day - 1))) != 0) {
+                        days.add(day);
+                    }
+                }
+                days = Collections.unmodifiableList(days);
+            }
+
+            return new Period.Interned(days, zoneId, beginHour, endHour);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int result = zoneId == null
+                ? (other.zoneId == null ? 0 : -1)
+                : (other.zoneId == null ? 1 : zoneId.compareTo(other.zoneId));
+            if (result == 0) {
+                result = Integer.compare(days, other.days);
+            }
+            if (result == 0) {
+                result = Integer.compare(beginHour, other.beginHour);
+            }
+            if (result == 0) {
+                result = Integer.compare(endHour, other.endHour);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return days == key.days && beginHour == key.beginHour && endHour == key.endHour && Objects.equals(zoneId, key.zoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(zoneId, days, beginHour, endHour);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static io.gravitee.notifier.api.CompiledPeriod.MILLIS_PER_DAY;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weekly schedule resulting from the merge of a set of {@link Period}s.
+ *
+ * Periods are grouped by zone and turned into sorted, non-overlapping intervals expressed in milliseconds since the
+ * beginning of the week (monday, midnight). Checking a timestamp is then a binary search per distinct zone, and the
+ * schedule is able to tell when it will be open next.
+ *
+ * Schedules are immutable and shared: {@link #of(Collection)} returns the same instance for equivalent periods (see
+ * {@link Periods}). Each schedule caches its last result along with the range of instants it is valid for, so that
+ * checking the notifications sharing a schedule against the current time costs a single evaluation.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Schedule {
+
+    /**
+     * Returned by {@link #nextEligibleTime(long)} when the schedule never opens.
+     */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    /**
+     * A schedule without any period, always open.
+     */
+    public static final Schedule ALWAYS = new Schedule(null);
+
+    static final long MILLIS_PER_WEEK = 7 * MILLIS_PER_DAY;
+
+    /**
+     * Number of days between the epoch (a thursday) and the previous monday.
+     */
+    private static final long EPOCH_DAY_OF_WEEK = 3;
+
+    private final ZoneSchedule[] zones;
+
+    private volatile Eligibility eligibility;
+
+    private Schedule(ZoneSchedule[] zones) {
+        this.zones = zones;
+    }
+
+    /**
+     * Returns the schedule of the specified periods, shared with any other equivalent set of periods.
+     */
+    public static Schedule of(Collection<Period> periods) {
+        if (periods == null || periods.isEmpty()) {
+            return ALWAYS;
+        }
+
+        return Periods.schedule(periods);
+    }
+
+    /**
+     * Compiles the schedule of the specified periods, without looking for an equivalent schedule.
+     */
+    static Schedule create(Collection<Period> periods) {
+        final List<CompiledPeriod> compiled = new ArrayList<>(periods.size());
+        for (Period period : periods) {
+            compiled.add(period.compile());
+        }
+
+        return compile(compiled);
+    }
+
+    static Schedule compile(List<CompiledPeriod> periods) {
+        final Map<ZoneId, List<CompiledPeriod>> byZone = new LinkedHashMap<>();
+        for (CompiledPeriod period : periods) {
+            byZone.computeIfAbsent(period.getZoneId(), zoneId -> new ArrayList<>()).add(period);
+        }
+
+        final List<ZoneSchedule> zones = new ArrayList<>(byZone.size());
+        for (List<CompiledPeriod> zonePeriods : byZone.values()) {
+            final ZoneSchedule zone = ZoneSchedule.of(zonePeriods);
+            if (zone.starts.length > 0) {
+                zones.add(zone);
+            }
+        }
+
+        return new Schedule(zones.toArray(new ZoneSchedule[0]));
+    }
+
+    /**
+     * Indicates if the schedule is open at the specified timestamp.
+     *
+     * @param timestamp the number of milliseconds since the epoch.
+     * @return <code>true</code> if the timestamp matches one of the periods, <code>false</code> else.
+     */
+    public boolean isEligible(long timestamp) {
+        if (zones == null) {
+            return true;
+        }
+
+        final Eligibility cached = eligibility;
+        if (cached != null && timestamp >= cached.from && timestamp < cached.until) {
+            return cached.eligible;
+        }
+
+        boolean eligible = false;
+        long until = Long.MAX_VALUE;
+        for (ZoneSchedule zone : zones) {
+            eligible |= zone.isEligible(timestamp);
+            until = Math.min(until, zone.stableUntil(timestamp));
+        }
+
+        // None of the zones changes before the end of the range, so neither does the result.
+        eligibility = new Eligibility(timestamp, until, eligible);
+        return eligible;
+    }
+
+    /**
+     * Returns the first instant, starting from the specified timestamp, at which the schedule is open.
+     *
+     * @param timestamp the number of milliseconds since the epoch.
+     * @return the timestamp itself if the schedule is currently open, the next opening timestamp or {@link #NEVER} if
+     * none of the periods can ever match.
+     */
+    public long nextEligibleTime(long timestamp) {
+        if (zones == null) {
+            return timestamp;
+        }
+
+        long next = NEVER;
+        for (ZoneSchedule zone : zones) {
+            next = Math.min(next, zone.nextEligibleTime(timestamp));
+        }
+
+        return next;
+    }
+
+    /**
+     * Indicates if the schedule is open whatever the time.
+     */
+    public boolean isAlways() {
+        return zones == null;
+    }
+
+    @Override
+    public String toString() {
+        return "Schedule{" + "zones=" + Arrays.toString(zones) + '}';
+    }
+
+    /**
+     * The result of the last evaluation, valid from <code>from</code> (inclusive) to <code>until</code> (exclusive).
+     */
+    private static final class Eligibility {
+
+        private final long from;
+        private final long until;
+        private final boolean eligible;
+
+        private Eligibility(long from, long until, boolean eligible) {
+            this.from = from;
+            this.until = until;
+            this.eligible = eligible;
+        }
+    }
+
+    private static final class ZoneSchedule {
+
+        private final ZoneId zoneId;
+
+        private final ZoneOffsetResolver offsets;
+
+        /**
+         * Interval bounds, in milliseconds since the beginning of the week, ends are inclusive.
+         */
+        private final int[] starts;
+        private final int[] ends;
+
+        private ZoneSchedule(ZoneId zoneId, ZoneOffsetResolver offsets, int[] starts, int[] ends) {
+            this.zoneId = zoneId;
+            this.offsets = offsets;
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        private static ZoneSchedule of(List<CompiledPeriod> periods) {
+            final List<int[]> intervals = new ArrayList<>();
+
+            for (CompiledPeriod period : periods) {
+                if (period.getBeginMillis() > period.getEndMillis()) {
+                    continue;
+                }
+
+                for (int day = 0; day < 7; day++) {
+                    if ((period.getDays() & (1 << day)) != 0) {
+                        final int dayStart = (int) (day * MILLIS_PER_DAY);
+                        intervals.add(new int[] { dayStart + period.getBeginMillis(), dayStart + period.getEndMillis() });
+                    }
+                }
+            }
+
+            intervals.sort((i1, i2) -> Integer.compare(i1[0], i2[0]));
+
+            final int[] starts = new int[intervals.size()];
+            final int[] ends = new int[intervals.size()];
+            int count = 0;
+
+            for (int[] interval : intervals) {
+                if (count > 0 && interval[0] <= ends[count - 1] + 1) {
+                    // Overlapping or contiguous, extend the previous interval.
+                    ends[count - 1] = Math.max(ends[count - 1], interval[1]);
+                } else {
+                    starts[count] = interval[0];
+                    ends[count] = interval[1];
+                    count++;
+                }
+            }
+
+            // All the periods of a zone share the same rules, reuse the offsets already resolved by one of them.
+            final CompiledPeriod first = periods.get(0);
+            return new ZoneSchedule(first.getZoneId(), first.offsets(), Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+        }
+
+        private long localTime(long timestamp) {
+            return timestamp + offsets.offsetMillis(timestamp);
+        }
+
+        private static int millisOfWeek(long localTime) {
+            return (int) Math.floorMod(localTime + EPOCH_DAY_OF_WEEK * MILLIS_PER_DAY, MILLIS_PER_WEEK);
+        }
+
+        /**
+         * Returns the index of the last interval starting before or at the specified time of the week, <code>-1</code> if none.
+         */
+        private int floor(int millisOfWeek) {
+            final int index = Arrays.binarySearch(starts, millisOfWeek);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        private boolean isEligible(long timestamp) {
+            final int millisOfWeek = millisOfWeek(localTime(timestamp));
+            final int index = floor(millisOfWeek);
+            return index >= 0 && millisOfWeek <= ends[index];
+        }
+
+        /**
+         * Returns the first instant after the specified timestamp at which the eligibility of this zone may change, i.e.
+         * the next bound of an interval or the next transition of the zone rules.
+         */
+        private long stableUntil(long timestamp) {
+            final int millisOfWeek = millisOfWeek(localTime(timestamp));
+            final int index = floor(millisOfWeek);
+
+            final long delay;
+            if (index >= 0 && millisOfWeek <= ends[index]) {
+                delay = ends[index] + 1L - millisOfWeek;
+            } else if (index + 1 < starts.length) {
+                delay = starts[index + 1] - millisOfWeek;
+            } else {
+                delay = MILLIS_PER_WEEK - millisOfWeek + starts[0];
+            }
+
+            return Math.min(timestamp + delay, offsets.transitionAfter(timestamp));
+        }
+
+        private long nextEligibleTime(long timestamp) {
+            long candidate = timestamp;
+
+            // Each iteration moves to the next interval, a couple of weeks is enough to get over any zone transition.
+            for (int attempt = 0; attempt < 2 * starts.length + 4; attempt++) {
+                if (isEligible(candidate)) {
+                    return candidate;
+                }
+
+                final long local = localTime(candidate);
+                final int millisOfWeek = millisOfWeek(local);
+
+                int next = floor(millisOfWeek) + 1;
+                long delay;
+                if (next < starts.length) {
+                    delay = starts[next] - millisOfWeek;
+                } else {
+                    delay = MILLIS_PER_WEEK - millisOfWeek + starts[0];
+                }
+
+                final long nextLocal = local + delay;
+                final LocalDateTime nextStart = LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(nextLocal, 1000),
+                    Math.floorMod(nextLocal, 1000) * 1_000_000,
+                    ZoneOffset.UTC
+                );
+
+                // Local times in an overlap keep the offset in force at the candidate, so that the repeated occurrence is
+                // not resolved to the one already past, and local times in a gap are shifted forward.
+                final ZoneOffset offset = ZoneOffset.ofTotalSeconds(Math.toIntExact((local - candidate) / 1000));
+                final long resolved = ZonedDateTime.ofLocal(nextStart, zoneId, offset).toInstant().toEpochMilli();
+
+                // Never go back in time.
+                candidate = Math.max(resolved, candidate + 1);
+            }
+
+            return NEVER;
+        }
+
+        @Override
+        public String toString() {
+            return "ZoneSchedule{" + "zoneId=" + zoneId + ", intervals=" + starts.length + '}';
+        }
+    }
+}
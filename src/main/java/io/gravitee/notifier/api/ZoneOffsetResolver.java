@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Resolves the offset of a zone at a given instant without allocating in the common case.
+ *
+ * The offset is cached along with the range of instants it is valid for (i.e. between two transitions of the zone rules),
+ * so that only crossing a daylight saving time transition requires going through {@link ZoneRules}.
+ *
+ * @author GraviteeSource Team
+ */
+final class ZoneOffsetResolver {
+
+    private final ZoneRules rules;
+
+    private final boolean fixed;
+
+    private volatile Window window;
+
+    ZoneOffsetResolver(ZoneId zoneId) {
+        this.rules = zoneId.getRules();
+        this.fixed = rules.isFixedOffset();
+        this.window = fixed ? new Window(Long.MIN_VALUE, Long.MAX_VALUE, rules.getOffset(Instant.EPOCH)) : null;
+    }
+
+    /**
+     * Returns the offset, in milliseconds, of the zone at the specified instant.
+     */
+    int offsetMillis(long epochMillis) {
+        final Window current = window;
+
+        if (current != null && (fixed || (epochMillis >= current.from && epochMillis < current.until))) {
+            return current.offsetMillis;
+        }
+
+        final Window resolved = resolve(epochMillis);
+        window = resolved;
+        return resolved.offsetMillis;
+    }
+
+    /**
+     * Returns the instant, in milliseconds since the epoch, of the first transition of the zone rules after the specified
+     * instant, {@link Long#MAX_VALUE} if there is none. The offset returned by {@link #offsetMillis(long)} does not change
+     * until then.
+     */
+    long transitionAfter(long epochMillis) {
+        final Window current = window;
+
+        if (current != null && (fixed || (epochMillis >= current.from && epochMillis < current.until))) {
+            return current.until;
+        }
+
+        final Window resolved = resolve(epochMillis);
+        window = resolved;
+        return resolved.until;
+    }
+
+    ZoneRules rules() {
+        return rules;
+    }
+
+    private Window resolve(long epochMillis) {
+        final Instant instant = Instant.ofEpochMilli(epochMillis);
+        final ZoneOffset offset = rules.getOffset(instant);
+
+        final ZoneOffsetTransition previous = rules.previousTransition(instant);
+        final ZoneOffsetTransition next = rules.nextTransition(instant);
+
+        long from = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000;
+        if (previous != null && !previous.getOffsetAfter().equals(offset)) {
+            // Exactly on a transition, only trust the resolved instant.
+            from = epochMillis;
+        }
+
+        long until = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000;
+        if (next != null && !next.getOffsetBefore().equals(offset)) {
+            until = epochMillis + 1;
+        }
+
+        return new Window(from, until, offset);
+    }
+
+    private static final class Window {
+
+        private final long from;
+        private final long until;
+        private final int offsetMillis;
+
+        private Window(long from, long until, ZoneOffset offset) {
+            this.from = from;
+            this.until = until;
+            this.offsetMillis = offset.getTotalSeconds() * 1000;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent, size-bounded cache using the CLOCK (second chance) eviction algorithm, an approximation of LRU.
+ *
+ * Lookups never lock: a hit only flags the entry as recently referenced. Values are loaded outside of any lock, so two
+ * threads missing on the same key at the same time may both load it, but only the first loaded value is kept.
+ *
+ * @author GraviteeSource Team
+ */
+public class BoundedCache<K, V> {
+
+    private final int capacity;
+
+    private final ConcurrentHashMap<K, Node<K, V>> entries;
+
+    /**
+     * Entries in insertion order, scanned by the eviction hand. Invalidated entries stay there until they are reached by
+     * the hand or purged, see {@link #invalidated}.
+     */
+    private final ConcurrentLinkedQueue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Approximate number of invalidated entries still in the clock. The clock is purged once it exceeds the capacity, so
+     * that invalidating and caching keys again does not make it grow without bound.
+     */
+    private final AtomicInteger invalidated = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be strictly positive");
+        }
+
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Returns the value associated to the key, or <code>null</code> if the key is not cached.
+     */
+    public V getIfPresent(K key) {
+        final Node<K, V> node = entries.get(key);
+
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+
+        node.touch();
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * Returns the value associated to the key, loading and caching it with the specified loader if absent.
+     */
+    public <E extends Exception> V get(K key, Loader<K, V, E> loader) throws E {
+        final Node<K, V> node = entries.get(key);
+
+        if (node != null) {
+            node.touch();
+            hits.increment();
+            return node.value;
+        }
+
+        misses.increment();
+        return put(key, loader.load(key));
+    }
+
+    /**
+     * Caches the value if the key is not already associated to a value.
+     *
+     * @return the value now associated to the key.
+     */
+    public V put(K key, V value) {
+        final Node<K, V> node = new Node<>(key, value);
+        final Node<K, V> previous = entries.putIfAbsent(key, node);
+
+        if (previous != null) {
+            return previous.value;
+        }
+
+        clock.offer(node);
+        evict();
+        return value;
+    }
+
+    public void invalidate(K key) {
+        if (entries.remove(key) != null && invalidated.incrementAndGet() > capacity) {
+            purge();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        clock.clear();
+        invalidated.set(0);
+    }
+
+    /**
+     * Removes the invalidated entries from the clock.
+     */
+    private void purge() {
+        invalidated.set(0);
+        clock.removeIf(node -> !node.isCached(entries));
+    }
+
+    /**
+     * Returns the number of entries scanned by the eviction hand, including the invalidated ones not removed yet.
+     */
+    int clockSize() {
+        return clock.size();
+    }
+
+    private void evict() {
+        // Each entry gets at most one second chance, bound the scan to avoid spinning under heavy concurrent access.
+        int remaining = 2 * (capacity + 1);
+
+        while (entries.size() > capacity && remaining-- > 0) {
+            final Node<K, V> node = clock.poll();
+            if (node == null) {
+                return;
+            }
+
+            if (!node.isCached(entries)) {
+                // Invalidated in the meantime.
+                continue;
+            }
+
+            if (node.referenced) {
+                node.referenced = false;
+                clock.offer(node);
+            } else if (entries.remove(node.key, node)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        final long hits = hits();
+        final long requests = hits + misses();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "BoundedCache{" +
+            "capacity=" +
+            capacity +
+            ", size=" +
+            size() +
+            ", hits=" +
+            hits() +
+            ", misses=" +
+            misses() +
+            ", evictions=" +
+            evictions() +
+            '}'
+        );
+    }
+
+    @FunctionalInterface
+    public interface Loader<K, V, E extends Exception> {
+        V load(K key) throws E;
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        private volatile boolean referenced;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * Indicates if this entry is still cached, and not only a former entry for the same key.
+         */
+        private boolean isCached(ConcurrentHashMap<K, Node<K, V>> entries) {
+            return entries.get(key) == this;
+        }
+
+        private void touch() {
+            // Avoid a volatile write (and cache line invalidation) when the flag is already set.
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
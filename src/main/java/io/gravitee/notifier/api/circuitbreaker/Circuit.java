@@ -0,0 +1,280 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.circuitbreaker;
+
+import io.gravitee.notifier.api.exception.CircuitBreakerOpenException;
+import io.gravitee.notifier.api.exception.NotifierRejectedException;
+import io.gravitee.notifier.api.metrics.NotifierMetrics;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A single circuit, of a notifier or of one of its targets, see {@link CircuitBreakerOptions}.
+ *
+ * Each state of the circuit is an immutable phase holding its own counters, replaced as a whole on each transition:
+ * sends are never blocked, and the outcome of a send started in a previous phase is simply ignored.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Circuit {
+
+    private static final int RECORDED = 1;
+    private static final int FAILED = 2;
+    private static final int SLOW = 4;
+
+    private final CircuitBreakerOptions options;
+
+    private final String type;
+
+    private final String target;
+
+    private final long slowCallNanos;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile Phase phase;
+
+    Circuit(CircuitBreakerOptions options, String type, String target) {
+        this.options = options;
+        this.type = type;
+        this.target = target;
+        this.slowCallNanos = options.getSlowCallDuration().toNanos();
+        this.phase = closed();
+    }
+
+    /**
+     * Sends through the circuit, or fails fast with a {@link CircuitBreakerOpenException} if the circuit is open.
+     */
+    public CompletableFuture<Void> execute(Supplier<CompletableFuture<Void>> send) {
+        final Phase phase = acquire();
+
+        if (phase == null) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException(type, target));
+        }
+
+        final long start = System.nanoTime();
+        final CompletableFuture<Void> sent;
+        try {
+            sent = send.get();
+        } catch (RuntimeException e) {
+            record(phase, System.nanoTime() - start, e);
+            throw e;
+        }
+
+        sent.whenComplete((ignore, throwable) -> record(phase, System.nanoTime() - start, throwable));
+        return sent;
+    }
+
+    /**
+     * Returns the phase the send is permitted in, <code>null</code> if the send must fail fast.
+     */
+    private Phase acquire() {
+        final Phase phase = this.phase;
+
+        switch (phase.state) {
+            case CLOSED:
+                return phase;
+            case OPEN:
+                if (System.nanoTime() - phase.untilNanos < 0) {
+                    return null;
+                }
+                transition(phase, halfOpen());
+                return acquireProbe(this.phase);
+            default:
+                final Phase probing = acquireProbe(phase);
+                if (probing == null && System.nanoTime() - phase.untilNanos >= 0) {
+                    // The probing sends did not complete in time, they may never complete: open again to probe later.
+                    transition(phase, open());
+                }
+                return probing;
+        }
+    }
+
+    private static Phase acquireProbe(Phase phase) {
+        if (phase.state != CircuitState.HALF_OPEN) {
+            return phase.state == CircuitState.CLOSED ? phase : null;
+        }
+
+        int permits;
+        do {
+            permits = phase.permits.get();
+            if (permits <= 0) {
+                return null;
+            }
+        } while (!phase.permits.compareAndSet(permits, permits - 1));
+
+        return phase;
+    }
+
+    private void record(Phase phase, long durationNanos, Throwable failure) {
+        final Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+
+        if (
+            cause instanceof NotifierRejectedException ||
+            cause instanceof CircuitBreakerOpenException ||
+            cause instanceof CancellationException
+        ) {
+            // Not sent at all, or cancelled by the caller: tells nothing about the health of the target.
+            if (phase.state == CircuitState.HALF_OPEN) {
+                phase.permits.incrementAndGet();
+            }
+            return;
+        }
+
+        if (phase != this.phase) {
+            return;
+        }
+
+        final int outcome = RECORDED | (cause != null ? FAILED : 0) | (durationNanos >= slowCallNanos ? SLOW : 0);
+
+        if (phase.state == CircuitState.CLOSED) {
+            final int index = (int) (phase.cursor.getAndIncrement() % options.getWindowSize());
+            final int previous = phase.outcomes.getAndSet(index, outcome);
+
+            if (previous == 0) {
+                phase.calls.incrementAndGet();
+            }
+            adjust(phase, previous, -1);
+            adjust(phase, outcome, 1);
+
+            final int calls = phase.calls.get();
+            if (calls >= options.getMinimumCalls() && exceedsThresholds(phase, calls)) {
+                transition(phase, open());
+            }
+        } else if (phase.state == CircuitState.HALF_OPEN) {
+            adjust(phase, outcome, 1);
+
+            final int calls = phase.calls.incrementAndGet();
+            if (calls >= options.getHalfOpenCalls()) {
+                transition(phase, exceedsThresholds(phase, calls) ? open() : closed());
+            }
+        }
+    }
+
+    private static void adjust(Phase phase, int outcome, int delta) {
+        if ((outcome & FAILED) != 0) {
+            phase.failures.addAndGet(delta);
+        }
+        if ((outcome & SLOW) != 0) {
+            phase.slowCalls.addAndGet(delta);
+        }
+    }
+
+    private boolean exceedsThresholds(Phase phase, int calls) {
+        return (
+            phase.failures.get() >= options.getFailureRateThreshold() * calls ||
+            phase.slowCalls.get() >= options.getSlowCallRateThreshold() * calls
+        );
+    }
+
+    private void transition(Phase from, Phase to) {
+        synchronized (this) {
+            if (phase != from) {
+                // Another send already moved the circuit to another phase.
+                return;
+            }
+            phase = to;
+        }
+
+        NotifierMetrics.current().circuitStateChanged(type, target, from.state, to.state);
+    }
+
+    private Phase closed() {
+        return new Phase(CircuitState.CLOSED, 0, 0, options.getWindowSize());
+    }
+
+    private Phase open() {
+        return new Phase(CircuitState.OPEN, System.nanoTime() + options.getOpenDuration().toNanos(), 0, 0);
+    }
+
+    private Phase halfOpen() {
+        final long until = System.nanoTime() + options.getMaxHalfOpenDuration().toNanos();
+        return new Phase(CircuitState.HALF_OPEN, until, options.getHalfOpenCalls(), 0);
+    }
+
+    public CircuitState state() {
+        final Phase phase = this.phase;
+
+        // An open circuit whose open duration elapsed lets probing sends through, even before the first one.
+        if (phase.state == CircuitState.OPEN && System.nanoTime() - phase.untilNanos >= 0) {
+            return CircuitState.HALF_OPEN;
+        }
+
+        return phase.state;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the target of the circuit, <code>null</code> for the circuit of the whole notifier.
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the number of sends which failed fast because the circuit was open.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Circuit{" + "type='" + type + '\'' + ", target='" + target + '\'' + ", state=" + state() + ", rejected=" + rejected() + '}';
+    }
+
+    private static final class Phase {
+
+        private final CircuitState state;
+
+        /**
+         * End of an open phase, or maximum duration of a half open phase, as a {@link System#nanoTime()}.
+         */
+        private final long untilNanos;
+
+        private final AtomicInteger permits;
+
+        /**
+         * Outcomes of the last sends of a closed circuit, used as a ring buffer.
+         */
+        private final AtomicIntegerArray outcomes;
+
+        private final AtomicLong cursor = new AtomicLong();
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        private Phase(CircuitState state, long untilNanos, int permits, int windowSize) {
+            this.state = state;
+            this.untilNanos = untilNanos;
+            this.permits = new AtomicInteger(permits);
+            this.outcomes = windowSize > 0 ? new AtomicIntegerArray(windowSize) : null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.circuitbreaker;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.cache.BoundedCache;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Applies the {@link CircuitBreakerOptions} of a notifier, using one circuit for the notifier and one per target.
+ *
+ * @author GraviteeSource Team
+ */
+public class CircuitBreaker {
+
+    private final CircuitBreakerOptions options;
+
+    private final String type;
+
+    private final Circuit circuit;
+
+    private final BoundedCache<String, Circuit> targets;
+
+    public CircuitBreaker(String type, CircuitBreakerOptions options) {
+        this.options = options;
+        this.type = type;
+        this.circuit = new Circuit(options, type, null);
+        this.targets = options.getTargetKey() != null ? new BoundedCache<>(options.getMaxTargets()) : null;
+    }
+
+    /**
+     * Sends the notification through the circuit of its target, or the circuit of the notifier when it has no target.
+     */
+    public CompletableFuture<Void> execute(Notification notification, Supplier<CompletableFuture<Void>> send) {
+        return circuit(notification).execute(send);
+    }
+
+    /**
+     * Returns the circuit the notification is sent through.
+     */
+    public Circuit circuit(Notification notification) {
+        if (targets == null) {
+            return circuit;
+        }
+
+        final String target = options.getTargetKey().apply(notification);
+        if (target == null) {
+            return circuit;
+        }
+
+        return targets.get(target, key -> new Circuit(options, type, key));
+    }
+
+    /**
+     * Returns the circuit of the notifier, used by the notifications without target.
+     */
+    public Circuit circuit() {
+        return circuit;
+    }
+
+    /**
+     * Returns the circuit of the specified target, <code>null</code> if no notification has been sent to it recently.
+     */
+    public Circuit circuit(String target) {
+        return targets == null ? null : targets.getIfPresent(target);
+    }
+
+    public CircuitBreakerOptions getOptions() {
+        return options;
+    }
+}
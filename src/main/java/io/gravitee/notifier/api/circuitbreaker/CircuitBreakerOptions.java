@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.circuitbreaker;
+
+import io.gravitee.notifier.api.Notification;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Defines when the circuit breaker of a notifier opens, and how it recovers.
+ *
+ * The outcome of the last {@link #getWindowSize()} sends is recorded. Once at least {@link #getMinimumCalls()} sends
+ * are recorded, the circuit opens when the rate of failed sends, or the rate of sends slower than
+ * {@link #getSlowCallDuration()}, reaches its threshold. Sends then fail fast for {@link #getOpenDuration()}, after
+ * which {@link #getHalfOpenCalls()} probing sends go through: the circuit closes if their rates are below the
+ * thresholds, and opens again otherwise. The circuit also opens again if the probing sends are not all completed within
+ * {@link #getMaxHalfOpenDuration()}, so that probes which never complete do not keep the circuit half open forever.
+ *
+ * When a target key is defined, each target (e.g. the host of a webhook, or a mail relay) has its own circuit, so that
+ * a single failing endpoint does not stop the notifications sent to the others.
+ *
+ * @author GraviteeSource Team
+ */
+public class CircuitBreakerOptions {
+
+    private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    private static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0;
+    private static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(10);
+    private static final int DEFAULT_WINDOW_SIZE = 100;
+    private static final int DEFAULT_MINIMUM_CALLS = 10;
+    private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    private static final int DEFAULT_HALF_OPEN_CALLS = 3;
+    private static final Duration DEFAULT_MAX_HALF_OPEN_DURATION = Duration.ofSeconds(60);
+    private static final int DEFAULT_MAX_TARGETS = 10_000;
+
+    private final double failureRateThreshold;
+
+    private final double slowCallRateThreshold;
+
+    private final Duration slowCallDuration;
+
+    private final int windowSize;
+
+    private final int minimumCalls;
+
+    private final Duration openDuration;
+
+    private final int halfOpenCalls;
+
+    private final Duration maxHalfOpenDuration;
+
+    /**
+     * Extracts the target of a notification, usually from its configuration. A notification without target uses the
+     * circuit of the notifier.
+     */
+    private final Function<Notification, String> targetKey;
+
+    /**
+     * The maximum number of target circuits kept in memory, the least recently used ones are evicted.
+     */
+    private final int maxTargets;
+
+    private CircuitBreakerOptions(
+        double failureRateThreshold,
+        double slowCallRateThreshold,
+        Duration slowCallDuration,
+        int windowSize,
+        int minimumCalls,
+        Duration openDuration,
+        int halfOpenCalls,
+        Duration maxHalfOpenDuration,
+        Function<Notification, String> targetKey,
+        int maxTargets
+    ) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("The failure rate threshold must be greater than 0 and at most 1");
+        }
+        if (slowCallRateThreshold <= 0 || slowCallRateThreshold > 1) {
+            throw new IllegalArgumentException("The slow call rate threshold must be greater than 0 and at most 1");
+        }
+        if (windowSize <= 0 || minimumCalls <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("The window size, minimum calls and half open calls must be strictly positive");
+        }
+        if (openDuration == null || openDuration.isNegative() || slowCallDuration == null || slowCallDuration.isNegative()) {
+            throw new IllegalArgumentException("The open and slow call durations must be positive");
+        }
+        if (maxHalfOpenDuration == null || maxHalfOpenDuration.isNegative() || maxHalfOpenDuration.isZero()) {
+            throw new IllegalArgumentException("The maximum half open duration must be strictly positive");
+        }
+
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.maxHalfOpenDuration = maxHalfOpenDuration;
+        this.targetKey = targetKey;
+        this.maxTargets = maxTargets;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public Duration getMaxHalfOpenDuration() {
+        return maxHalfOpenDuration;
+    }
+
+    public Function<Notification, String> getTargetKey() {
+        return targetKey;
+    }
+
+    public int getMaxTargets() {
+        return maxTargets;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "CircuitBreakerOptions{" +
+            "failureRateThreshold=" +
+            failureRateThreshold +
+            ", slowCallRateThreshold=" +
+            slowCallRateThreshold +
+            ", slowCallDuration=" +
+            slowCallDuration +
+            ", windowSize=" +
+            windowSize +
+            ", minimumCalls=" +
+            minimumCalls +
+            ", openDuration=" +
+            openDuration +
+            ", halfOpenCalls=" +
+            halfOpenCalls +
+            ", maxHalfOpenDuration=" +
+            maxHalfOpenDuration +
+            ", maxTargets=" +
+            maxTargets +
+            '}'
+        );
+    }
+
+    public static class Builder {
+
+        private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+        private Duration slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+        private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+        private Duration openDuration = DEFAULT_OPEN_DURATION;
+        private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+        private Duration maxHalfOpenDuration = DEFAULT_MAX_HALF_OPEN_DURATION;
+        private Function<Notification, String> targetKey;
+        private int maxTargets = DEFAULT_MAX_TARGETS;
+
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        public Builder slowCallRateThreshold(double slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        public Builder slowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        public Builder minimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        public Builder maxHalfOpenDuration(Duration maxHalfOpenDuration) {
+            this.maxHalfOpenDuration = maxHalfOpenDuration;
+            return this;
+        }
+
+        public Builder targetKey(Function<Notification, String> targetKey) {
+            this.targetKey = targetKey;
+            return this;
+        }
+
+        public Builder maxTargets(int maxTargets) {
+            this.maxTargets = maxTargets;
+            return this;
+        }
+
+        public CircuitBreakerOptions build() {
+            return new CircuitBreakerOptions(
+                failureRateThreshold,
+                slowCallRateThreshold,
+                slowCallDuration,
+                windowSize,
+                minimumCalls,
+                openDuration,
+                halfOpenCalls,
+                maxHalfOpenDuration,
+                targetKey,
+                maxTargets
+            );
+        }
+    }
+}
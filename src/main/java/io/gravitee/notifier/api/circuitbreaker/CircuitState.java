@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.circuitbreaker;
+
+/**
+ * The states of a {@link CircuitBreaker}.
+ *
+ * @author GraviteeSource Team
+ */
+public enum CircuitState {
+    /**
+     * Sends go through, their outcome is recorded.
+     */
+    CLOSED,
+
+    /**
+     * Sends fail fast, until the open duration elapses.
+     */
+    OPEN,
+
+    /**
+     * A few probing sends go through to decide whether the circuit closes or opens again, others fail fast.
+     */
+    HALF_OPEN,
+}
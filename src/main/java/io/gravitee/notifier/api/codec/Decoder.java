@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the tagged fields written by an {@link Encoder}. Malformed input is reported with an
+ * {@link IllegalArgumentException}.
+ *
+ * @author GraviteeSource Team
+ */
+final class Decoder {
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private final int limit;
+
+    Decoder(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int readByte() {
+        if (position >= limit) {
+            throw new IllegalArgumentException("Malformed input: unexpected end of data");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed input: varint too long");
+    }
+
+    int readInt() {
+        return (int) readVarint();
+    }
+
+    /**
+     * Reads the key of the next field.
+     *
+     * @return the key, holding the number of the field in its upper bits and its wire type in its lower 3 bits.
+     */
+    int readKey() {
+        return readInt();
+    }
+
+    /**
+     * Reads the length of a length-delimited field and returns a decoder limited to its content.
+     */
+    Decoder readMessage() {
+        final int length = readLength();
+        final Decoder message = new Decoder(buffer, position, position + length);
+        position += length;
+        return message;
+    }
+
+    byte[] readBytes() {
+        final int length = readLength();
+        final byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    String readString() {
+        final int length = readLength();
+        final String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Skips a field unknown to this version of the codec.
+     */
+    void skip(int key) {
+        switch (key & 0x7) {
+            case Encoder.VARINT -> readVarint();
+            case Encoder.LENGTH_DELIMITED -> {
+                final int length = readLength();
+                position += length;
+            }
+            default -> throw new IllegalArgumentException("Malformed input: unknown wire type " + (key & 0x7));
+        }
+    }
+
+    private int readLength() {
+        final long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new IllegalArgumentException("Malformed input: invalid length " + length);
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes tagged fields into a growable byte array. Each field starts with a key, a varint holding its number and its
+ * wire type, so that readers can skip the fields they do not know.
+ *
+ * @author GraviteeSource Team
+ */
+final class Encoder {
+
+    static final int VARINT = 0;
+    static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+
+    private int position;
+
+    Encoder(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarintField(int field, long value) {
+        writeVarint(((long) field << 3) | VARINT);
+        writeVarint(value);
+    }
+
+    void writeBytesField(int field, byte[] bytes) {
+        writeVarint(((long) field << 3) | LENGTH_DELIMITED);
+        writeVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeStringField(int field, String value) {
+        writeBytesField(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts a nested message, whose length is written once the message is complete (see {@link #endMessage(int)}).
+     *
+     * @return the position of the length of the nested message.
+     */
+    int beginMessage(int field) {
+        writeVarint(((long) field << 3) | LENGTH_DELIMITED);
+        // Nested messages are expected to be small, reserve a single byte for their length.
+        writeByte(0);
+        return position - 1;
+    }
+
+    void endMessage(int mark) {
+        final int length = position - mark - 1;
+
+        if (length < 0x80) {
+            buffer[mark] = (byte) length;
+            return;
+        }
+
+        // Make room for the extra bytes of the length.
+        final int extra = varintSize(length) - 1;
+        ensureCapacity(extra);
+        System.arraycopy(buffer, mark + 1, buffer, mark + 1 + extra, length);
+
+        int value = length;
+        int index = mark;
+        while ((value & ~0x7F) != 0) {
+            buffer[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[index] = (byte) value;
+        position += extra;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private void ensureCapacity(int length) {
+        if (position + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+        }
+    }
+}
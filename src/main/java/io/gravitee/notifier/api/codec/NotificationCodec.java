@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.codec;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.Period;
+import io.gravitee.notifier.api.Periods;
+import io.gravitee.notifier.api.jackson.RawJson;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact binary codec for {@link Notification}s and {@link Period}s, meant to replicate subscriptions between nodes,
+ * typically through a distributed cache.
+ *
+ * An encoded value starts with the version of the format, followed by tagged fields:
+ *
+ * <pre>
+ * Notification: 1 type (string), 2 period (nested message, repeated), 3 configuration (raw UTF-8 JSON)
+ * Period:       1 days (bitmask, bit 0 for monday), 2 zone id (see {@link ZoneTable}), 3 zone name (string),
+ *               4 begin hour (varint), 5 end hour (varint)
+ * </pre>
+ *
+ * Absent fields are decoded as <code>null</code> (or as the default value of the hours), and fields unknown to this
+ * version of the codec are skipped, so fields can be added without breaking older readers. Days are normalized by the
+ * bitmask: they are decoded sorted, without duplicates nor invalid values, which does not change the meaning of the
+ * period. Decoded periods are interned (see {@link Periods#intern(List)}), so that notifications replicated with the same
+ * periods share them. The configuration is copied as raw bytes and only decoded when first read.
+ *
+ * @author GraviteeSource Team
+ */
+public final class NotificationCodec {
+
+    /**
+     * The version of the format written by this codec. Values written with a greater version are rejected, so it only
+     * changes for incompatible changes: new fields get new tags, and new zones are encoded by name (see {@link ZoneTable}).
+     */
+    public static final int VERSION = 1;
+
+    private static final int NOTIFICATION_TYPE = 1;
+    private static final int NOTIFICATION_PERIOD = 2;
+    private static final int NOTIFICATION_CONFIGURATION = 3;
+
+    private static final int PERIOD_DAYS = 1;
+    private static final int PERIOD_ZONE_ID = 2;
+    private static final int PERIOD_ZONE_NAME = 3;
+    private static final int PERIOD_BEGIN_HOUR = 4;
+    private static final int PERIOD_END_HOUR = 5;
+
+    private NotificationCodec() {}
+
+    public static byte[] encode(Notification notification) {
+        final Encoder encoder = new Encoder(64);
+        encoder.writeByte(VERSION);
+
+        if (notification.getType() != null) {
+            encoder.writeStringField(NOTIFICATION_TYPE, notification.getType());
+        }
+
+        final List<Period> periods = notification.getPeriods();
+        if (periods != null) {
+            for (Period period : periods) {
+                final int mark = encoder.beginMessage(NOTIFICATION_PERIOD);
+                writePeriod(encoder, period);
+                encoder.endMessage(mark);
+            }
+        }
+
+        final RawJson configuration = notification.rawConfiguration();
+        if (configuration != null) {
+            encoder.writeBytesField(NOTIFICATION_CONFIGURATION, configuration.toUtf8());
+        }
+
+        return encoder.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a notification encoded by a compatible version of the codec.
+     */
+    public static Notification decode(byte[] bytes) {
+        final Decoder decoder = open(bytes);
+        final Notification notification = new Notification();
+        List<Period> periods = null;
+
+        while (decoder.hasRemaining()) {
+            final int key = decoder.readKey();
+            switch (key >>> 3) {
+                case NOTIFICATION_TYPE -> notification.setType(decoder.readString());
+                case NOTIFICATION_PERIOD -> {
+                    if (periods == null) {
+                        periods = new ArrayList<>(2);
+                    }
+                    periods.add(readPeriod(decoder.readMessage()));
+                }
+                case NOTIFICATION_CONFIGURATION -> notification.setRawConfiguration(RawJson.ofUtf8(decoder.readBytes()));
+                default -> decoder.skip(key);
+            }
+        }
+
+        notification.setPeriods(Periods.intern(periods));
+        return notification;
+    }
+
+    public static byte[] encode(Period period) {
+        final Encoder encoder = new Encoder(16);
+        encoder.writeByte(VERSION);
+        writePeriod(encoder, period);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a period encoded by a compatible version of the codec.
+     */
+    public static Period decodePeriod(byte[] bytes) {
+        return readPeriod(open(bytes));
+    }
+
+    private static Decoder open(byte[] bytes) {
+        final Decoder decoder = new Decoder(bytes, 0, bytes.length);
+        final int version = decoder.readByte();
+
+        if (version == 0 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported format version " + version);
+        }
+
+        return decoder;
+    }
+
+    private static void writePeriod(Encoder encoder, Period period) {
+        if (period.getDays() != null) {
+            int mask = 0;
+            for (Integer day : period.getDays()) {
+                if (day != null && day >= 1 && day <= 7) {
+                    mask |= 1 << (day - 1);
+                }
+            }
+            encoder.writeVarintField(PERIOD_DAYS, mask);
+        }
+
+        final String zoneId = period.getZoneId();
+        if (zoneId != null) {
+            final int id = ZoneTable.id(zoneId);
+            if (id >= 0) {
+                encoder.writeVarintField(PERIOD_ZONE_ID, id);
+            } else {
+                encoder.writeStringField(PERIOD_ZONE_NAME, zoneId);
+            }
+        }
+
+        encoder.writeVarintField(PERIOD_BEGIN_HOUR, period.getBeginHour() & 0xFFFFFFFFL);
+        encoder.writeVarintField(PERIOD_END_HOUR, period.getEndHour() & 0xFFFFFFFFL);
+    }
+
+    private static Period readPeriod(Decoder decoder) {
+        final Period.Builder builder = new Period.Builder().zoneId(null);
+
+        while (decoder.hasRemaining()) {
+            final int key = decoder.readKey();
+            switch (key >>> 3) {
+                case PERIOD_DAYS -> builder.days(days(decoder.readInt()));
+                case PERIOD_ZONE_ID -> builder.zoneId(ZoneTable.zone(decoder.readInt()));
+                case PERIOD_ZONE_NAME -> builder.zoneId(decoder.readString());
+                case PERIOD_BEGIN_HOUR -> builder.beginHour(decoder.readInt());
+                case PERIOD_END_HOUR -> builder.endHour(decoder.readInt());
+                default -> decoder.skip(key);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static List<Integer> days(int mask) {
+        final List<Integer> days = new ArrayList<>(Integer.bitCount(mask));
+        for (int day = 1; day <= 7; day++) {
+            if ((mask & (1 << (day - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The zones encoded as a small id rather than by name. The table is part of the format and is frozen: entries must never
+ * be removed, reordered nor added, since older readers would not know the new ids. Zones which are not in the table,
+ * including the ones worth adding later, are encoded by name, which every reader understands, so that the version of
+ * the format does not change because of them.
+ *
+ * @author GraviteeSource Team
+ */
+final class ZoneTable {
+
+    private static final String[] ZONES = {
+        "UTC",
+        "GMT",
+        "Europe/London",
+        "Europe/Dublin",
+        "Europe/Lisbon",
+        "Europe/Paris",
+        "Europe/Brussels",
+        "Europe/Amsterdam",
+        "Europe/Luxembourg",
+        "Europe/Berlin",
+        "Europe/Zurich",
+        "Europe/Vienna",
+        "Europe/Rome",
+        "Europe/Madrid",
+        "Europe/Stockholm",
+        "Europe/Oslo",
+        "Europe/Copenhagen",
+        "Europe/Helsinki",
+        "Europe/Warsaw",
+        "Europe/Prague",
+        "Europe/Budapest",
+        "Europe/Athens",
+        "Europe/Bucharest",
+        "Europe/Istanbul",
+        "Europe/Kiev",
+        "Europe/Moscow",
+        "Africa/Casablanca",
+        "Africa/Lagos",
+        "Africa/Cairo",
+        "Africa/Johannesburg",
+        "Africa/Nairobi",
+        "Asia/Dubai",
+        "Asia/Karachi",
+        "Asia/Kolkata",
+        "Asia/Dhaka",
+        "Asia/Bangkok",
+        "Asia/Jakarta",
+        "Asia/Singapore",
+        "Asia/Hong_Kong",
+        "Asia/Shanghai",
+        "Asia/Taipei",
+        "Asia/Manila",
+        "Asia/Seoul",
+        "Asia/Tokyo",
+        "Australia/Perth",
+        "Australia/Brisbane",
+        "Australia/Sydney",
+        "Australia/Melbourne",
+        "Pacific/Auckland",
+        "Pacific/Honolulu",
+        "America/Anchorage",
+        "America/Los_Angeles",
+        "America/Vancouver",
+        "America/Denver",
+        "America/Phoenix",
+        "America/Chicago",
+        "America/Mexico_City",
+        "America/New_York",
+        "America/Toronto",
+        "America/Montreal",
+        "America/Bogota",
+        "America/Lima",
+        "America/Caracas",
+        "America/Santiago",
+        "America/Sao_Paulo",
+        "America/Argentina/Buenos_Aires",
+    };
+
+    private static final Map<String, Integer> IDS = new HashMap<>(ZONES.length * 2);
+
+    static {
+        for (int i = 0; i < ZONES.length; i++) {
+            IDS.put(ZONES[i], i);
+        }
+    }
+
+    private ZoneTable() {}
+
+    /**
+     * Returns the id of the zone, or <code>-1</code> if the zone is not in the table.
+     */
+    static int id(String zoneId) {
+        final Integer id = IDS.get(zoneId);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the zone having the specified id. The same string instance is returned for each id, so that decoded periods
+     * share their zones.
+     */
+    static String zone(int id) {
+        if (id < 0 || id >= ZONES.length) {
+            throw new IllegalArgumentException("Malformed input: unknown zone id " + id);
+        }
+        return ZONES[id];
+    }
+}
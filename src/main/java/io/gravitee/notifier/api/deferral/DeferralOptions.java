@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.deferral;
+
+import java.time.Duration;
+
+/**
+ * Defines how notifications sent outside of their time periods are deferred until one of their periods opens.
+ *
+ * @author GraviteeSource Team
+ */
+public class DeferralOptions {
+
+    private static final int DEFAULT_MAX_PARKED = 1_000_000;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+    private static final Duration DEFAULT_RESOLUTION = Duration.ofSeconds(1);
+
+    /**
+     * The maximum number of notifications waiting for their period to open, further notifications are rejected.
+     */
+    private final int maxParked;
+
+    /**
+     * The maximum number of notifications released together, larger groups are released as several batches.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Release times are rounded up to this resolution, so that notifications released at about the same time are
+     * grouped, at the cost of a delay of at most the resolution. Notifications whose window closes before the rounded
+     * release time are released when it opens instead.
+     */
+    private final Duration resolution;
+
+    private DeferralOptions(int maxParked, int maxBatchSize, Duration resolution) {
+        if (maxParked <= 0) {
+            throw new IllegalArgumentException("The maximum number of parked notifications must be strictly positive");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("The maximum batch size must be strictly positive");
+        }
+        if (resolution == null || resolution.toMillis() <= 0) {
+            throw new IllegalArgumentException("The resolution must be at least one millisecond");
+        }
+
+        this.maxParked = maxParked;
+        this.maxBatchSize = maxBatchSize;
+        this.resolution = resolution;
+    }
+
+    public int getMaxParked() {
+        return maxParked;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public Duration getResolution() {
+        return resolution;
+    }
+
+    @Override
+    public String toString() {
+        return "DeferralOptions{" + "maxParked=" + maxParked + ", maxBatchSize=" + maxBatchSize + ", resolution=" + resolution + '}';
+    }
+
+    public static class Builder {
+
+        private int maxParked = DEFAULT_MAX_PARKED;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private Duration resolution = DEFAULT_RESOLUTION;
+
+        public Builder maxParked(int maxParked) {
+            this.maxParked = maxParked;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public Builder resolution(Duration resolution) {
+            this.resolution = resolution;
+            return this;
+        }
+
+        public DeferralOptions build() {
+            return new DeferralOptions(maxParked, maxBatchSize, resolution);
+        }
+    }
+}
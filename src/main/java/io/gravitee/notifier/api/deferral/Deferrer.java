@@ -0,0 +1,294 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.deferral;
+
+import io.gravitee.notifier.api.NotificationRequest;
+import io.gravitee.notifier.api.Schedule;
+import io.gravitee.notifier.api.exception.NotifierRejectedException;
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Parks the notifications sent outside of their time periods, and releases them when one of their periods opens.
+ *
+ * Parked notifications are grouped by release time, the next eligible time of their {@link Schedule} rounded up to the
+ * {@link DeferralOptions#getResolution()}, unless their window closes before. Notifications sharing time periods, or
+ * periods opening at the same time, end up in the same group: the memory and timer cost is one timer task per distinct
+ * release time, plus one entry per parked notification, which lets hundreds of thousands of notifications wait for a few
+ * windows to open. Each group is released in batches of at most {@link DeferralOptions#getMaxBatchSize()}
+ * notifications. The eligibility of each notification is checked again when released: notifications whose periods are
+ * closed by then, e.g. modified in the meantime, are parked again until their next window.
+ *
+ * @author GraviteeSource Team
+ */
+public class Deferrer {
+
+    /**
+     * Release time of a notification which can be sent right away.
+     */
+    public static final long NOW = Long.MIN_VALUE;
+
+    private final DeferralOptions options;
+
+    private final HashedWheelTimer timer;
+
+    private final LongSupplier clock;
+
+    private final Function<List<NotificationRequest>, List<CompletableFuture<Void>>> releaser;
+
+    private final Map<Long, Group> groups = new ConcurrentHashMap<>();
+
+    private final AtomicInteger parked = new AtomicInteger();
+
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param releaser sends a batch of released notifications, returning the result of each of them in order.
+     */
+    public Deferrer(
+        DeferralOptions options,
+        HashedWheelTimer timer,
+        Function<List<NotificationRequest>, List<CompletableFuture<Void>>> releaser
+    ) {
+        this(options, timer, System::currentTimeMillis, releaser);
+    }
+
+    Deferrer(
+        DeferralOptions options,
+        HashedWheelTimer timer,
+        LongSupplier clock,
+        Function<List<NotificationRequest>, List<CompletableFuture<Void>>> releaser
+    ) {
+        this.options = options;
+        this.timer = timer;
+        this.clock = clock;
+        this.releaser = releaser;
+    }
+
+    /**
+     * Returns the release time of the notification, {@link #NOW} if it can be sent right away, or {@link Schedule#NEVER}
+     * if its time periods never open.
+     */
+    public long releaseTime(NotificationRequest request) {
+        final long now = clock.getAsLong();
+        final long next = request.getNotification().nextNotificationTime(now);
+
+        if (next == now) {
+            return NOW;
+        } else if (next == Schedule.NEVER) {
+            return next;
+        }
+
+        final long resolution = options.getResolution().toMillis();
+        final long rounded = Math.floorDiv(next + resolution - 1, resolution) * resolution;
+
+        // Do not miss windows shorter than the resolution.
+        return rounded == next || request.getNotification().schedule().isEligible(rounded) ? rounded : next;
+    }
+
+    /**
+     * Parks the notification until the specified release time, as returned by {@link #releaseTime(NotificationRequest)}.
+     *
+     * @return the result of the notification once released, failed with a {@link NotifierRejectedException} if too many
+     * notifications are already parked or if the notification can never be sent.
+     */
+    public CompletableFuture<Void> defer(NotificationRequest request, long releaseTime) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        if (park(request, releaseTime, result)) {
+            deferred.increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Parks the notification until the specified release time, or completes its result exceptionally if it can not be parked.
+     *
+     * @return <code>true</code> if the notification has been parked.
+     */
+    private boolean park(NotificationRequest request, long releaseTime, CompletableFuture<Void> result) {
+        if (releaseTime == Schedule.NEVER) {
+            rejected.increment();
+            result.completeExceptionally(new NotifierRejectedException("The time periods of the notification never open"));
+            return false;
+        }
+
+        if (parked.incrementAndGet() > options.getMaxParked()) {
+            parked.decrementAndGet();
+            rejected.increment();
+            result.completeExceptionally(new NotifierRejectedException("Too many notifications waiting for their time periods"));
+            return false;
+        }
+
+        groups.compute(
+            releaseTime,
+            (ignore, group) -> {
+                if (group == null) {
+                    group = new Group(releaseTime);
+                    schedule(group);
+                }
+
+                group.requests.add(request);
+                group.results.add(result);
+                return group;
+            }
+        );
+
+        return true;
+    }
+
+    /**
+     * Releases all the parked notifications right away, whatever their time periods, e.g. before stopping.
+     */
+    public void releaseAll() {
+        for (Group group : groups.values()) {
+            if (groups.remove(group.releaseTime, group)) {
+                release(group, true);
+            }
+        }
+    }
+
+    private void schedule(Group group) {
+        timer.schedule(
+            () -> {
+                if (groups.remove(group.releaseTime, group)) {
+                    release(group, false);
+                }
+            },
+            group.releaseTime - clock.getAsLong(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * @param force <code>true</code> to release all the notifications of the group, whatever their time periods.
+     */
+    private void release(Group group, boolean force) {
+        parked.addAndGet(-group.requests.size());
+
+        final List<NotificationRequest> requests;
+        final List<CompletableFuture<Void>> results;
+        if (force) {
+            requests = group.requests;
+            results = group.results;
+        } else {
+            requests = new ArrayList<>(group.requests.size());
+            results = new ArrayList<>(group.results.size());
+            for (int i = 0; i < group.requests.size(); i++) {
+                final NotificationRequest request = group.requests.get(i);
+                final long releaseTime = releaseTime(request);
+
+                if (releaseTime == NOW) {
+                    requests.add(request);
+                    results.add(group.results.get(i));
+                } else {
+                    park(request, releaseTime, group.results.get(i));
+                }
+            }
+        }
+
+        final int size = requests.size();
+        released.add(size);
+
+        for (int from = 0; from < size; from += options.getMaxBatchSize()) {
+            final int to = Math.min(size, from + options.getMaxBatchSize());
+            relay(requests.subList(from, to), results.subList(from, to));
+        }
+    }
+
+    private void relay(List<NotificationRequest> requests, List<CompletableFuture<Void>> results) {
+        List<CompletableFuture<Void>> sent;
+        try {
+            sent = releaser.apply(new ArrayList<>(requests));
+        } catch (Throwable throwable) {
+            results.forEach(result -> result.completeExceptionally(throwable));
+            return;
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            final CompletableFuture<Void> result = results.get(i);
+            sent
+                .get(i)
+                .whenComplete((ignore, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(null);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Returns the number of notifications waiting for their time periods to open.
+     */
+    public int parked() {
+        return parked.get();
+    }
+
+    /**
+     * Returns the number of distinct release times notifications are waiting for.
+     */
+    public int releaseTimes() {
+        return groups.size();
+    }
+
+    /**
+     * Returns the number of notifications deferred since the creation of the deferrer.
+     */
+    public long deferred() {
+        return deferred.sum();
+    }
+
+    /**
+     * Returns the number of notifications released since the creation of the deferrer.
+     */
+    public long released() {
+        return released.sum();
+    }
+
+    /**
+     * Returns the number of notifications rejected since the creation of the deferrer.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private static final class Group {
+
+        private final long releaseTime;
+
+        private final List<NotificationRequest> requests = new ArrayList<>();
+
+        private final List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        private Group(long releaseTime) {
+            this.releaseTime = releaseTime;
+        }
+    }
+}
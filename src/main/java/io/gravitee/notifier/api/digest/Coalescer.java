@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.digest;
+
+import static io.gravitee.notifier.api.digest.CoalescingOptions.DIGEST_COUNT_PARAMETER;
+import static io.gravitee.notifier.api.digest.CoalescingOptions.DIGEST_PARAMETER;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.NotificationRequest;
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Groups repeated notifications and sends them as a single digest.
+ *
+ * The digest is sent with the notification and the parameters of the first notification of the group, enriched with
+ * the list of the parameters of every notification of the group (see {@link CoalescingOptions#DIGEST_PARAMETER}) and
+ * their count (see {@link CoalescingOptions#DIGEST_COUNT_PARAMETER}). A group made of a single notification is sent as is.
+ * The result of the digest is the result of each of the coalesced notifications.
+ *
+ * @author GraviteeSource Team
+ */
+public class Coalescer {
+
+    private final CoalescingOptions options;
+
+    private final HashedWheelTimer timer;
+
+    private final Function<NotificationRequest, CompletableFuture<Void>> sender;
+
+    private final Map<List<Object>, Group> groups = new ConcurrentHashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    public Coalescer(CoalescingOptions options, HashedWheelTimer timer, Function<NotificationRequest, CompletableFuture<Void>> sender) {
+        this.options = options;
+        this.timer = timer;
+        this.sender = sender;
+    }
+
+    /**
+     * Adds the notification to its group.
+     *
+     * @return the result of the digest the notification ends up in.
+     */
+    public CompletableFuture<Void> submit(NotificationRequest request) {
+        received.increment();
+
+        final List<Object> key = key(request);
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final Group[] full = new Group[1];
+
+        groups.compute(
+            key,
+            (ignore, group) -> {
+                if (group == null) {
+                    group = new Group(key);
+                    schedule(group);
+                }
+
+                group.add(request, result);
+
+                if (group.requests.size() >= options.getMaxCount()) {
+                    full[0] = group;
+                    return null;
+                }
+                return group;
+            }
+        );
+
+        if (full[0] != null) {
+            flush(full[0]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Sends all the pending groups right away.
+     */
+    public void flushAll() {
+        for (Group group : groups.values()) {
+            if (groups.remove(group.key, group)) {
+                flush(group);
+            }
+        }
+    }
+
+    private void schedule(Group group) {
+        timer.schedule(
+            () -> {
+                if (groups.remove(group.key, group)) {
+                    flush(group);
+                }
+            },
+            options.getWindow().toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    private void flush(Group group) {
+        sent.increment();
+
+        CompletableFuture<Void> digest;
+        try {
+            digest = sender.apply(group.digest());
+        } catch (Throwable throwable) {
+            digest = CompletableFuture.failedFuture(throwable);
+        }
+
+        digest.whenComplete((ignore, throwable) -> {
+            for (CompletableFuture<Void> result : group.results) {
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(null);
+                }
+            }
+        });
+    }
+
+    private List<Object> key(NotificationRequest request) {
+        final Notification notification = request.getNotification();
+        final List<String> keyParameters = options.getKeyParameters();
+        final Object[] key = new Object[2 + keyParameters.size()];
+
+        key[0] = notification.getType();
+        key[1] = notification.getConfiguration();
+        for (int i = 0; i < keyParameters.size(); i++) {
+            key[i + 2] = request.getParameters() == null ? null : request.getParameters().get(keyParameters.get(i));
+        }
+
+        return Arrays.asList(key);
+    }
+
+    /**
+     * Returns the number of groups waiting to be sent.
+     */
+    public int pending() {
+        return groups.size();
+    }
+
+    /**
+     * Returns the number of notifications submitted.
+     */
+    public long received() {
+        return received.sum();
+    }
+
+    /**
+     * Returns the number of notifications actually sent, digests included.
+     */
+    public long sent() {
+        return sent.sum();
+    }
+
+    private static final class Group {
+
+        private final List<Object> key;
+
+        private final List<NotificationRequest> requests = new ArrayList<>();
+
+        private final List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        private Group(List<Object> key) {
+            this.key = key;
+        }
+
+        private void add(NotificationRequest request, CompletableFuture<Void> result) {
+            requests.add(request);
+            results.add(result);
+        }
+
+        private NotificationRequest digest() {
+            final NotificationRequest first = requests.get(0);
+
+            if (requests.size() == 1) {
+                return first;
+            }
+
+            final List<Map<String, Object>> digest = new ArrayList<>(requests.size());
+            for (NotificationRequest request : requests) {
+                digest.add(request.getParameters());
+            }
+
+            final Map<String, Object> parameters = first.getParameters() == null ? new HashMap<>() : new HashMap<>(first.getParameters());
+            parameters.put(DIGEST_PARAMETER, digest);
+            parameters.put(DIGEST_COUNT_PARAMETER, requests.size());
+
+            return NotificationRequest.of(first.getNotification(), parameters);
+        }
+    }
+}
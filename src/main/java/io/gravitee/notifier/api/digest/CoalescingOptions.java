@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.digest;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Defines how repeated notifications are coalesced into a single digest.
+ *
+ * Notifications sharing the same type, the same configuration and the same values for the key parameters are grouped
+ * together. A group is sent as soon as it reaches the maximum count, or when the window elapses.
+ *
+ * @author GraviteeSource Team
+ */
+public class CoalescingOptions {
+
+    /**
+     * Name of the parameter holding the list of the parameters of each coalesced notification.
+     */
+    public static final String DIGEST_PARAMETER = "digest";
+
+    /**
+     * Name of the parameter holding the number of coalesced notifications.
+     */
+    public static final String DIGEST_COUNT_PARAMETER = "digestCount";
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAX_COUNT = 1000;
+
+    /**
+     * How long the first notification of a group waits for others before the group is sent.
+     */
+    private final Duration window;
+
+    /**
+     * The maximum number of notifications in a group, the group is sent right away when reached.
+     */
+    private final int maxCount;
+
+    /**
+     * The parameters whose values must be equal for notifications to be coalesced, in addition to their type and
+     * configuration.
+     */
+    private final List<String> keyParameters;
+
+    private CoalescingOptions(Duration window, int maxCount, List<String> keyParameters) {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("The coalescing window must be strictly positive");
+        }
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("The maximum number of coalesced notifications must be strictly positive");
+        }
+
+        this.window = window;
+        this.maxCount = maxCount;
+        this.keyParameters = keyParameters == null ? Collections.emptyList() : List.copyOf(keyParameters);
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public List<String> getKeyParameters() {
+        return keyParameters;
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingOptions{" + "window=" + window + ", maxCount=" + maxCount + ", keyParameters=" + keyParameters + '}';
+    }
+
+    public static class Builder {
+
+        private Duration window = DEFAULT_WINDOW;
+        private int maxCount = DEFAULT_MAX_COUNT;
+        private List<String> keyParameters;
+
+        public Builder window(Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        public Builder maxCount(int maxCount) {
+            this.maxCount = maxCount;
+            return this;
+        }
+
+        public Builder keyParameters(List<String> keyParameters) {
+            this.keyParameters = keyParameters;
+            return this;
+        }
+
+        public CoalescingOptions build() {
+            return new CoalescingOptions(window, maxCount, keyParameters);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.exception;
+
+/**
+ * Raised when a notification is not sent because the circuit breaker of its notifier, or of its target, is open.
+ *
+ * @author GraviteeSource Team
+ */
+public class CircuitBreakerOpenException extends NotifierException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String type;
+
+    private final String target;
+
+    public CircuitBreakerOpenException(String type, String target) {
+        super(
+            target == null
+                ? "Circuit breaker of notifier [" + type + "] is open"
+                : "Circuit breaker of notifier [" + type + "] is open for target [" + target + "]"
+        );
+        this.type = type;
+        this.target = target;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the target whose circuit is open, <code>null</code> if the circuit of the whole notifier is open.
+     */
+    public String getTarget() {
+        return target;
+    }
+}
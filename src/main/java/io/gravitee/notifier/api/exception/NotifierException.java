@@ -21,6 +21,8 @@ package io.gravitee.notifier.api.exception;
  */
 public class NotifierException extends Exception {
 
+    private static final long serialVersionUID = -5068464209314382138L;
+
     public NotifierException() {}
 
     public NotifierException(String message) {
@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.exception;
+
+/**
+ * Raised when a notification is not sent because the rate limit of the notifier, or of its target, is exceeded.
+ *
+ * @author GraviteeSource Team
+ */
+public class NotifierThrottledException extends NotifierRejectedException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NotifierThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.exception;
+
+import java.time.Duration;
+
+/**
+ * Raised when a notification is not sent before its deadline.
+ *
+ * @author GraviteeSource Team
+ */
+public class NotifierTimeoutException extends NotifierException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String type;
+
+    private final Duration timeout;
+
+    public NotifierTimeoutException(String type, Duration timeout) {
+        super("Notification not sent by notifier [" + type + "] within " + timeout.toMillis() + "ms");
+        this.type = type;
+        this.timeout = timeout;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.execution;
+
+import io.gravitee.notifier.api.exception.NotifierRejectedException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous sends while bounding the number of sends in progress at the same time.
+ *
+ * Sends exceeding the limit wait in a bounded queue and are started, in order, as soon as a send in progress completes.
+ * When the queue is full, the {@link OverflowPolicy} decides what happens. No lock is taken, neither to start a send nor
+ * to complete one.
+ *
+ * @author GraviteeSource Team
+ */
+public class BoundedExecutor {
+
+    private final String name;
+
+    private final ExecutionOptions options;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ConcurrentLinkedDeque<Task> queue = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Guards the draining of the queue so that only one thread at a time starts waiting sends, and sends completing
+     * synchronously do not recurse.
+     */
+    private final AtomicInteger draining = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+
+    public BoundedExecutor(String name, ExecutionOptions options) {
+        this.name = name;
+        this.options = options;
+    }
+
+    /**
+     * Runs the send right away if the maximum number of sends in flight is not reached, or as soon as possible.
+     *
+     * @param send starts the send and returns its result.
+     * @return the result of the send, completed exceptionally with a {@link NotifierRejectedException} if the send has
+     * been rejected or dropped.
+     */
+    public CompletableFuture<Void> execute(Supplier<CompletableFuture<Void>> send) {
+        if (queued.get() == 0 && tryAcquire()) {
+            return start(send);
+        }
+
+        final Task task = new Task(send);
+        if (offer(task)) {
+            drain();
+            return task.result;
+        }
+
+        switch (options.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                final Task oldest = queue.pollFirst();
+                if (oldest != null) {
+                    queued.decrementAndGet();
+                    dropped.increment();
+                    oldest.result.completeExceptionally(new NotifierRejectedException("Notification dropped by [" + name + "], queue is full"));
+                }
+
+                if (offer(task)) {
+                    drain();
+                    return task.result;
+                }
+
+                rejected.increment();
+                return rejection();
+            case CALLER_RUNS:
+                if (!tryAcquire(2 * options.getMaxInFlight())) {
+                    rejected.increment();
+                    return rejection();
+                }
+
+                // Started by the caller without waiting for its completion, which would block an event loop. It counts as
+                // a send in flight, so the waiting sends are started only once the sends in flight are below the maximum.
+                callerRuns.increment();
+                return start(send);
+            case REJECT:
+            default:
+                rejected.increment();
+                return rejection();
+        }
+    }
+
+    private CompletableFuture<Void> rejection() {
+        return CompletableFuture.failedFuture(
+            new NotifierRejectedException(
+                "Notification rejected by [" + name + "], " + options.getMaxInFlight() + " sends in flight and queue is full"
+            )
+        );
+    }
+
+    private boolean offer(Task task) {
+        if (queued.incrementAndGet() > options.getQueueCapacity()) {
+            queued.decrementAndGet();
+            return false;
+        }
+
+        queue.offerLast(task);
+        return true;
+    }
+
+    private boolean tryAcquire() {
+        return tryAcquire(options.getMaxInFlight());
+    }
+
+    private boolean tryAcquire(int maxInFlight) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        if (draining.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            while (queued.get() > 0 && tryAcquire()) {
+                final Task task = queue.pollFirst();
+                if (task == null) {
+                    // Task not yet visible in the queue, the thread which offered it will drain again.
+                    inFlight.decrementAndGet();
+                    break;
+                }
+
+                queued.decrementAndGet();
+
+                if (task.result.isDone()) {
+                    // Cancelled while waiting.
+                    inFlight.decrementAndGet();
+                    continue;
+                }
+
+                start(task.send).whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        task.result.completeExceptionally(throwable);
+                    } else {
+                        task.result.complete(result);
+                    }
+                });
+            }
+
+            missed = draining.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private CompletableFuture<Void> start(Supplier<CompletableFuture<Void>> send) {
+        final CompletableFuture<Void> result = invoke(send);
+        result.whenComplete((ignore, throwable) -> release());
+        return result;
+    }
+
+    private static CompletableFuture<Void> invoke(Supplier<CompletableFuture<Void>> send) {
+        try {
+            final CompletableFuture<Void> result = send.get();
+            return result == null ? CompletableFuture.completedFuture(null) : result;
+        } catch (Throwable throwable) {
+            return CompletableFuture.failedFuture(throwable);
+        }
+    }
+
+    public ExecutionOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns the number of sends currently in progress.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of sends currently waiting to be started.
+     */
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Returns the number of sends rejected because the queue was full.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of waiting sends dropped to make room for newer ones.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of sends run by the calling thread because the queue was full.
+     */
+    public long callerRuns() {
+        return callerRuns.sum();
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "BoundedExecutor{" +
+            "name='" +
+            name +
+            '\'' +
+            ", inFlight=" +
+            inFlight() +
+            ", queueDepth=" +
+            queueDepth() +
+            ", rejected=" +
+            rejected() +
+            ", dropped=" +
+            dropped() +
+            ", callerRuns=" +
+            callerRuns() +
+            '}'
+        );
+    }
+
+    private static final class Task {
+
+        private final Supplier<CompletableFuture<Void>> send;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Task(Supplier<CompletableFuture<Void>> send) {
+            this.send = send;
+        }
+    }
+}
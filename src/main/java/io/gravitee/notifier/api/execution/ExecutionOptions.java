@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.execution;
+
+/**
+ * Limits applied to the sends of a notifier.
+ *
+ * @author GraviteeSource Team
+ */
+public class ExecutionOptions {
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 100;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    /**
+     * The maximum number of sends in progress at the same time.
+     */
+    private final int maxInFlight;
+
+    /**
+     * The maximum number of sends waiting for one of the sends in progress to complete.
+     */
+    private final int queueCapacity;
+
+    /**
+     * What to do when the wait queue is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    private ExecutionOptions(int maxInFlight, int queueCapacity, OverflowPolicy overflowPolicy) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of sends in flight must be strictly positive");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("The queue capacity must be positive");
+        }
+
+        this.maxInFlight = maxInFlight;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.REJECT : overflowPolicy;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "ExecutionOptions{" +
+            "maxInFlight=" +
+            maxInFlight +
+            ", queueCapacity=" +
+            queueCapacity +
+            ", overflowPolicy=" +
+            overflowPolicy +
+            '}'
+        );
+    }
+
+    public static class Builder {
+
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public ExecutionOptions build() {
+            return new ExecutionOptions(maxInFlight, queueCapacity, overflowPolicy);
+        }
+    }
+}
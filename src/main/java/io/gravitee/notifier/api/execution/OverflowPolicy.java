@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.execution;
+
+/**
+ * What to do with a send when the maximum number of sends in flight is reached and the wait queue is full.
+ *
+ * @author GraviteeSource Team
+ */
+public enum OverflowPolicy {
+    /**
+     * The send is rejected, its result completes exceptionally.
+     */
+    REJECT,
+
+    /**
+     * The oldest waiting send is rejected to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The send is started right away by the calling thread, which slows down the producer by the cost of starting it
+     * without blocking it until the send completes. It counts as a send in flight, and is rejected once the sends in
+     * flight reach twice the maximum.
+     */
+    CALLER_RUNS,
+}
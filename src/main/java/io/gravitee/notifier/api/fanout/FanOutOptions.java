@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.fanout;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Defines how an event is fanned out to many notifications, see
+ * {@link io.gravitee.notifier.api.NotifierRegistry#fanOut(java.util.Collection, java.util.Map, long, FanOutOptions)}.
+ *
+ * @author GraviteeSource Team
+ */
+public class FanOutOptions {
+
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int DEFAULT_PARALLELISM_THRESHOLD = 1024;
+
+    /**
+     * Default executor, running each batch on its own virtual thread.
+     */
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("gravitee-notifier-fanout-", 0).factory()
+    );
+
+    /**
+     * The maximum number of notifications of the same type handed over to their notifier in a single batch. Batches are
+     * sent in parallel.
+     */
+    private final int batchSize;
+
+    /**
+     * The number of notifications from which their time periods are evaluated in parallel.
+     */
+    private final int parallelismThreshold;
+
+    /**
+     * The executor sending the batches.
+     */
+    private final Executor executor;
+
+    private FanOutOptions(int batchSize, int parallelismThreshold, Executor executor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be strictly positive");
+        }
+
+        this.batchSize = batchSize;
+        this.parallelismThreshold = parallelismThreshold;
+        this.executor = executor == null ? DEFAULT_EXECUTOR : executor;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getParallelismThreshold() {
+        return parallelismThreshold;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutOptions{" + "batchSize=" + batchSize + ", parallelismThreshold=" + parallelismThreshold + ", executor=" + executor + '}';
+    }
+
+    public static class Builder {
+
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int parallelismThreshold = DEFAULT_PARALLELISM_THRESHOLD;
+        private Executor executor;
+
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder parallelismThreshold(int parallelismThreshold) {
+            this.parallelismThreshold = parallelismThreshold;
+            return this;
+        }
+
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public FanOutOptions build() {
+            return new FanOutOptions(batchSize, parallelismThreshold, executor);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.fanout;
+
+import io.gravitee.notifier.api.Notification;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The result of an event fanned out to many notifications, in the order of the notifications.
+ *
+ * @author GraviteeSource Team
+ */
+public final class FanOutResult {
+
+    private final List<Notification> notifications;
+
+    private final List<CompletableFuture<Void>> results;
+
+    private final int eligible;
+
+    public FanOutResult(List<Notification> notifications, List<CompletableFuture<Void>> results, int eligible) {
+        this.notifications = notifications;
+        this.results = results;
+        this.eligible = eligible;
+    }
+
+    /**
+     * Returns the number of notifications the event has been fanned out to.
+     */
+    public int size() {
+        return notifications.size();
+    }
+
+    public Notification getNotification(int index) {
+        return notifications.get(index);
+    }
+
+    /**
+     * Indicates if the notification was within its time periods, and has been sent.
+     */
+    public boolean isEligible(int index) {
+        return results.get(index) != null;
+    }
+
+    /**
+     * Returns the result of the send of the notification, <code>null</code> if it was outside of its time periods.
+     */
+    public CompletableFuture<Void> getResult(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * Returns the number of notifications within their time periods.
+     */
+    public int eligible() {
+        return eligible;
+    }
+
+    /**
+     * Returns a future completed once all the sends are completed, whatever their outcome.
+     */
+    public CompletableFuture<Void> completion() {
+        final CompletableFuture<?>[] sends = results
+            .stream()
+            .filter(result -> result != null)
+            .map(result -> result.handle((ignore, throwable) -> null))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(sends);
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutResult{" + "size=" + size() + ", eligible=" + eligible + '}';
+    }
+}
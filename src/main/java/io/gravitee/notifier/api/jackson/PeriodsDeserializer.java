@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import io.gravitee.notifier.api.Period;
+import io.gravitee.notifier.api.Periods;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Deserializes the time periods of a notification.
+ *
+ * By default, each notification gets its own periods. When the {@link #INTERN_ATTRIBUTE} attribute is set to
+ * <code>true</code> on the reader, the periods are interned with {@link Periods#intern(List)}, so that notifications
+ * sharing the same periods share the same immutable instances.
+ *
+ * @author GraviteeSource Team
+ */
+public class PeriodsDeserializer extends JsonDeserializer<List<Period>> {
+
+    /**
+     * Reader attribute enabling interning, e.g. <code>mapper.readerFor(Notification.class).withAttribute(INTERN_ATTRIBUTE, true)</code>.
+     */
+    public static final String INTERN_ATTRIBUTE = "gravitee.notifier.periods.intern";
+
+    @Override
+    public List<Period> deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        final JavaType type = ctxt.getTypeFactory().constructCollectionType(List.class, Period.class);
+        final List<Period> periods = ctxt.readValue(jp, type);
+
+        return Boolean.TRUE.equals(ctxt.getAttribute(INTERN_ATTRIBUTE)) ? Periods.intern(periods) : periods;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.jackson;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A raw JSON value, either kept as a string or as undecoded UTF-8 bytes until it is first read as a string.
+ *
+ * Once decoded, the bytes are released and only the string is kept.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RawJson {
+
+    private volatile String value;
+
+    private volatile byte[] utf8;
+
+    private RawJson(String value, byte[] utf8) {
+        this.value = value;
+        this.utf8 = utf8;
+    }
+
+    public static RawJson of(String value) {
+        return value == null ? null : new RawJson(value, null);
+    }
+
+    /**
+     * Wraps UTF-8 encoded JSON, which is decoded only when first read as a string. The array must not be modified
+     * afterwards.
+     */
+    public static RawJson ofUtf8(byte[] utf8) {
+        return utf8 == null ? null : new RawJson(null, utf8);
+    }
+
+    /**
+     * Indicates if the value has already been decoded as a string.
+     */
+    public boolean isDecoded() {
+        return value != null;
+    }
+
+    /**
+     * Returns the value encoded in UTF-8, without decoding it if it has not been decoded yet. The returned array must not
+     * be modified.
+     */
+    public byte[] toUtf8() {
+        final byte[] bytes = utf8;
+        return bytes != null ? bytes : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        String decoded = value;
+
+        if (decoded == null) {
+            final byte[] bytes = utf8;
+            if (bytes == null) {
+                // Decoded by another thread in the meantime.
+                return value;
+            }
+
+            decoded = new String(bytes, StandardCharsets.UTF_8);
+            value = decoded;
+            utf8 = null;
+        }
+
+        return decoded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+}
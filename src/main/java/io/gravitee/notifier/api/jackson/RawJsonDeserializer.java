@@ -15,24 +15,50 @@
  */
 package io.gravitee.notifier.api.jackson;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 
 /**
+ * Deserializes any JSON value as its raw JSON representation.
+ *
+ * The value is copied token by token from the parser to a generator, without building an intermediate tree, into a
+ * writer relying on the recycled buffers of the JSON factory. The output is the same as serializing the tree of the
+ * value, except for duplicated keys which are all kept.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class RawJsonDeserializer extends JsonDeserializer<String> {
 
+    private static final JsonFactory DEFAULT_FACTORY = new JsonFactory();
+
     @Override
     public String deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        ObjectMapper mapper = (ObjectMapper) jp.getCodec();
-        JsonNode node = mapper.readTree(jp);
-        return mapper.writeValueAsString(node);
+        final ObjectCodec codec = jp.getCodec();
+        final JsonFactory factory = codec != null && codec.getFactory() != null ? codec.getFactory() : DEFAULT_FACTORY;
+
+        try (SegmentedStringWriter writer = new SegmentedStringWriter(factory._getBufferRecycler())) {
+            try (JsonGenerator generator = createGenerator(codec, factory, writer)) {
+                generator.copyCurrentStructure(jp);
+            }
+            return writer.getAndClear();
+        }
+    }
+
+    private static JsonGenerator createGenerator(ObjectCodec codec, JsonFactory factory, SegmentedStringWriter writer) throws IOException {
+        if (codec instanceof ObjectMapper) {
+            // Apply the serialization configuration of the mapper, as it would be to serialize the value.
+            return ((ObjectMapper) codec).writer().createGenerator(writer);
+        }
+
+        return factory.createGenerator(writer);
     }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.jackson;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+
+/**
+ * Deserializes any JSON value as a {@link RawJson}.
+ *
+ * By default, the value is kept as a string, exactly as {@link RawJsonDeserializer} does. When the
+ * {@link #LAZY_ATTRIBUTE} attribute is set to <code>true</code> on the reader, the value is kept as UTF-8 bytes and only
+ * decoded when first read as a string.
+ *
+ * @author GraviteeSource Team
+ */
+public class RawJsonValueDeserializer extends JsonDeserializer<RawJson> {
+
+    /**
+     * Reader attribute enabling lazy decoding, e.g. <code>mapper.readerFor(Notification.class).withAttribute(LAZY_ATTRIBUTE, true)</code>.
+     */
+    public static final String LAZY_ATTRIBUTE = "gravitee.notifier.rawJson.lazy";
+
+    private static final JsonFactory DEFAULT_FACTORY = new JsonFactory();
+
+    private final RawJsonDeserializer delegate = new RawJsonDeserializer();
+
+    @Override
+    public RawJson deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        if (!Boolean.TRUE.equals(ctxt.getAttribute(LAZY_ATTRIBUTE))) {
+            return RawJson.of(delegate.deserialize(jp, ctxt));
+        }
+
+        final ObjectCodec codec = jp.getCodec();
+        final JsonFactory factory = codec != null && codec.getFactory() != null ? codec.getFactory() : DEFAULT_FACTORY;
+
+        final ByteArrayBuilder bytes = new ByteArrayBuilder(factory._getBufferRecycler());
+        try {
+            try (JsonGenerator generator = factory.createGenerator(bytes, JsonEncoding.UTF8)) {
+                generator.copyCurrentStructure(jp);
+            }
+            return RawJson.ofUtf8(bytes.toByteArray());
+        } finally {
+            bytes.release();
+        }
+    }
+}
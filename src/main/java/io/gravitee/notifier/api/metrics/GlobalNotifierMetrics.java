@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.metrics;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Holds the metrics in use, see {@link NotifierMetrics#current()}.
+ *
+ * @author GraviteeSource Team
+ */
+final class GlobalNotifierMetrics {
+
+    static volatile NotifierMetrics instance = load();
+
+    private GlobalNotifierMetrics() {}
+
+    private static NotifierMetrics load() {
+        try {
+            return ServiceLoader.load(NotifierMetrics.class, NotifierMetrics.class.getClassLoader()).findFirst().orElse(NotifierMetrics.NOOP);
+        } catch (ServiceConfigurationError e) {
+            return NotifierMetrics.NOOP;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.metrics;
+
+import io.gravitee.notifier.api.circuitbreaker.CircuitState;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics kept in memory per notifier type, to be exposed by the product embedding the notifiers, e.g.
+ *
+ * <pre>
+ * final InMemoryNotifierMetrics metrics = new InMemoryNotifierMetrics();
+ * NotifierMetrics.install(metrics);
+ * ...
+ * metrics.of("email").sendLatency().valueAtPercentile(99);
+ * </pre>
+ *
+ * @author GraviteeSource Team
+ */
+public class InMemoryNotifierMetrics implements NotifierMetrics {
+
+    private final Map<String, TypeMetrics> types = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the metrics of the specified notifier type, created on first use.
+     */
+    public TypeMetrics of(String type) {
+        final TypeMetrics metrics = types.get(type);
+
+        // Avoid the locking of computeIfAbsent once the type is known.
+        return metrics != null ? metrics : types.computeIfAbsent(type, ignore -> new TypeMetrics());
+    }
+
+    public Set<String> types() {
+        return types.keySet();
+    }
+
+    @Override
+    public void sendStarted(String type) {
+        of(type).inFlight.increment();
+    }
+
+    @Override
+    public void sendCompleted(String type, long durationNanos, Throwable failure) {
+        final TypeMetrics metrics = of(type);
+
+        metrics.inFlight.decrement();
+        metrics.sendLatency.record(durationNanos);
+        if (failure == null) {
+            metrics.successes.increment();
+        } else {
+            metrics.failures.increment();
+        }
+    }
+
+    @Override
+    public void rendered(String type, long durationNanos, Throwable failure) {
+        final TypeMetrics metrics = of(type);
+
+        metrics.renderLatency.record(durationNanos);
+        if (failure != null) {
+            metrics.renderFailures.increment();
+        }
+    }
+
+    @Override
+    public void filtered(String type, boolean eligible) {
+        final TypeMetrics metrics = of(type);
+
+        if (eligible) {
+            metrics.eligible.increment();
+        } else {
+            metrics.filteredOut.increment();
+        }
+    }
+
+    @Override
+    public void circuitStateChanged(String type, String target, CircuitState from, CircuitState to) {
+        final TypeMetrics metrics = of(type);
+
+        if (to == CircuitState.OPEN) {
+            metrics.circuitOpenings.increment();
+        }
+        if (from == CircuitState.CLOSED) {
+            metrics.circuitsNotClosed.increment();
+        } else if (to == CircuitState.CLOSED) {
+            metrics.circuitsNotClosed.decrement();
+        }
+    }
+
+    /**
+     * Metrics of a single notifier type. Latencies are expressed in nanoseconds.
+     */
+    public static final class TypeMetrics {
+
+        private final LatencyHistogram sendLatency = new LatencyHistogram();
+        private final LatencyHistogram renderLatency = new LatencyHistogram();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LongAdder renderFailures = new LongAdder();
+        private final LongAdder eligible = new LongAdder();
+        private final LongAdder filteredOut = new LongAdder();
+        private final LongAdder circuitOpenings = new LongAdder();
+        private final LongAdder circuitsNotClosed = new LongAdder();
+
+        private TypeMetrics() {}
+
+        public LatencyHistogram sendLatency() {
+            return sendLatency;
+        }
+
+        public LatencyHistogram renderLatency() {
+            return renderLatency;
+        }
+
+        public long successes() {
+            return successes.sum();
+        }
+
+        public long failures() {
+            return failures.sum();
+        }
+
+        public long inFlight() {
+            return inFlight.sum();
+        }
+
+        public long renderFailures() {
+            return renderFailures.sum();
+        }
+
+        public long eligible() {
+            return eligible.sum();
+        }
+
+        public long filteredOut() {
+            return filteredOut.sum();
+        }
+
+        /**
+         * Returns the number of times a circuit of this notifier opened.
+         */
+        public long circuitOpenings() {
+            return circuitOpenings.sum();
+        }
+
+        /**
+         * Returns the number of circuits of this notifier currently open or half open.
+         */
+        public long circuitsNotClosed() {
+            return circuitsNotClosed.sum();
+        }
+
+        @Override
+        public String toString() {
+            return (
+                "TypeMetrics{" +
+                "successes=" +
+                successes() +
+                ", failures=" +
+                failures() +
+                ", inFlight=" +
+                inFlight() +
+                ", sendLatency=" +
+                sendLatency +
+                ", renderLatency=" +
+                renderLatency +
+                ", renderFailures=" +
+                renderFailures() +
+                ", eligible=" +
+                eligible() +
+                ", filteredOut=" +
+                filteredOut() +
+                ", circuitOpenings=" +
+                circuitOpenings() +
+                ", circuitsNotClosed=" +
+                circuitsNotClosed() +
+                '}'
+            );
+        }
+    }
+}
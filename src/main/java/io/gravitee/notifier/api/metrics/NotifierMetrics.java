@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.metrics;
+
+import io.gravitee.notifier.api.circuitbreaker.CircuitState;
+
+/**
+ * Instrumentation SPI of the notifiers. All the methods are called on the hot paths of the notifiers, so
+ * implementations must be thread-safe, non-blocking and cheap, e.g. based on {@link LatencyHistogram} and
+ * {@link java.util.concurrent.atomic.LongAdder}.
+ *
+ * The metrics in use are looked up once with the {@link java.util.ServiceLoader}, and default to {@link #NOOP} when
+ * no implementation is found. They can be replaced at any time with {@link #install(NotifierMetrics)}.
+ *
+ * @author GraviteeSource Team
+ */
+public interface NotifierMetrics {
+    /**
+     * Metrics recording nothing, in use by default.
+     */
+    NotifierMetrics NOOP = new NotifierMetrics() {};
+
+    /**
+     * Called when a notifier of the specified type starts sending a notification.
+     */
+    default void sendStarted(String type) {}
+
+    /**
+     * Called when a send started with {@link #sendStarted(String)} completes.
+     *
+     * @param type the type of the notifier.
+     * @param durationNanos the duration of the send, in nanoseconds.
+     * @param failure the cause of the failure, <code>null</code> if the notification has been sent.
+     */
+    default void sendCompleted(String type, long durationNanos, Throwable failure) {}
+
+    /**
+     * Called when a notifier of the specified type has rendered a template.
+     *
+     * @param type the type of the notifier.
+     * @param durationNanos the duration of the rendering, including the compilation of the template if it was not cached.
+     * @param failure the cause of the failure, <code>null</code> if the template has been rendered.
+     */
+    default void rendered(String type, long durationNanos, Throwable failure) {}
+
+    /**
+     * Called when the time periods of a notification have been checked.
+     *
+     * @param type the type of the notification.
+     * @param eligible <code>true</code> if the notification could be sent, <code>false</code> if it was filtered out.
+     */
+    default void filtered(String type, boolean eligible) {}
+
+    /**
+     * Called when a circuit breaker changes state.
+     *
+     * @param type the type of the notifier.
+     * @param target the target of the circuit, <code>null</code> for the circuit of the whole notifier.
+     * @param from the previous state of the circuit.
+     * @param to the new state of the circuit.
+     */
+    default void circuitStateChanged(String type, String target, CircuitState from, CircuitState to) {}
+
+    /**
+     * Returns the metrics currently in use.
+     */
+    static NotifierMetrics current() {
+        return GlobalNotifierMetrics.instance;
+    }
+
+    /**
+     * Replaces the metrics in use, <code>null</code> to stop recording.
+     */
+    static void install(NotifierMetrics metrics) {
+        GlobalNotifierMetrics.instance = metrics == null ? NOOP : metrics;
+    }
+}
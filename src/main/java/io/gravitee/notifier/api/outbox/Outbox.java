@@ -0,0 +1,376 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.NotificationRequest;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * A local, durable, journal of the notifications being sent.
+ *
+ * Each notification is appended to a memory-mapped segment file before being sent, and acknowledged once sent. Writing
+ * to a mapped file is a memory write, the operating system writing the pages to the disk in the background: the
+ * journal survives a crash of the process, and a crash of the operating system too when
+ * {@link OutboxOptions#isSyncOnWrite()} is enabled. On startup, the journal is read again and the notifications not
+ * acknowledged are available through {@link #recovered()} to be sent again.
+ *
+ * When a segment is full, a new one is created. The oldest segment is deleted as soon as all its notifications are
+ * acknowledged, and compacted, by copying its few pending notifications to the current segment, when the ratio of its
+ * pending notifications goes below {@link OutboxOptions#getCompactionThreshold()}. Segments are always removed oldest
+ * first, so that an acknowledgment is never removed before the notification it acknowledges.
+ *
+ * Notifications are stored as JSON along with their parameters, which must be serializable by Jackson. Parameters
+ * read back from the journal are made of maps, lists and simple values.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Outbox implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{20})\\.outbox");
+
+    private final OutboxOptions options;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Segments, from the oldest to the current one.
+     */
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    /**
+     * Location of the payload of each pending notification.
+     */
+    private final Map<Long, Location> pending = new HashMap<>();
+
+    private long nextId = 1;
+
+    /**
+     * The highest id read back when the outbox was opened, entries appended since all have a higher id.
+     */
+    private long lastRecoveredId;
+
+    private boolean closed;
+
+    private Outbox(OutboxOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Opens the outbox stored in the directory of the options, creating it if needed, and reads back its pending
+     * notifications.
+     */
+    public static Outbox open(OutboxOptions options) throws IOException {
+        final Outbox outbox = new Outbox(options);
+        outbox.load();
+        return outbox;
+    }
+
+    private void load() throws IOException {
+        final Path directory = options.getDirectory();
+        Files.createDirectories(directory);
+
+        final List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches()).sorted(Comparator.naturalOrder()).toList();
+        }
+
+        for (Path file : files) {
+            final Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+            matcher.matches();
+
+            final Segment segment = Segment.open(file, Long.parseLong(matcher.group(1)));
+            segment.scan((type, id, offset, length) -> {
+                if (type == Segment.PUT) {
+                    segment.puts++;
+                    segment.live.add(id);
+                    final Location previous = pending.put(id, new Location(segment, offset, length));
+                    if (previous != null) {
+                        // Copied by a compaction interrupted before the deletion of the older segment, keep the copy.
+                        previous.segment.live.remove(id);
+                    }
+                } else {
+                    final Location location = pending.remove(id);
+                    if (location != null) {
+                        location.segment.live.remove(id);
+                    }
+                }
+                nextId = Math.max(nextId, id + 1);
+            });
+            segments.add(segment);
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(segmentPath(0), 0, options.getSegmentSize()));
+        }
+
+        lastRecoveredId = nextId - 1;
+        maintain();
+    }
+
+    /**
+     * Persists a notification about to be sent.
+     *
+     * @return the id of the entry, to acknowledge once the notification is sent.
+     */
+    public long append(Notification notification, Map<String, Object> parameters) throws IOException {
+        // Serialize outside of the lock, appending is then a copy into the mapped segment.
+        final byte[] payload = MAPPER.writeValueAsBytes(new Payload(notification, parameters));
+
+        lock.lock();
+        try {
+            ensureOpen();
+
+            final long id = nextId++;
+            put(id, payload);
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acknowledges a sent notification, which will not be read back anymore.
+     *
+     * @return <code>false</code> if the notification was already acknowledged.
+     */
+    public boolean acknowledge(long id) throws IOException {
+        lock.lock();
+        try {
+            ensureOpen();
+
+            final Location location = pending.remove(id);
+            if (location == null) {
+                return false;
+            }
+
+            location.segment.live.remove(id);
+            writable(0).append(Segment.ACK, id, null, options.isSyncOnWrite());
+            maintain();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the notifications not acknowledged yet, ordered by id.
+     */
+    public List<OutboxEntry> pending() throws IOException {
+        return pending(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the notifications read back when the outbox was opened and not acknowledged yet, ordered by id. Unlike
+     * {@link #pending()}, notifications appended since, possibly still being sent, are left out.
+     */
+    public List<OutboxEntry> recovered() throws IOException {
+        return pending(lastRecoveredId);
+    }
+
+    private List<OutboxEntry> pending(long maxId) throws IOException {
+        final List<Long> ids = new ArrayList<>();
+        final List<byte[]> payloads = new ArrayList<>();
+
+        lock.lock();
+        try {
+            ensureOpen();
+
+            pending
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getKey() <= maxId)
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    final Location location = entry.getValue();
+                    ids.add(entry.getKey());
+                    payloads.add(location.segment.read(location.offset, location.length));
+                });
+        } finally {
+            lock.unlock();
+        }
+
+        final List<OutboxEntry> entries = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            final Payload payload = MAPPER.readValue(payloads.get(i), Payload.class);
+            entries.add(new OutboxEntry(ids.get(i), NotificationRequest.of(payload.notification, payload.parameters)));
+        }
+
+        return entries;
+    }
+
+    /**
+     * Returns the number of notifications not acknowledged yet.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of segment files.
+     */
+    public int segments() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes or compacts the oldest segments if possible, which is otherwise done when notifications are acknowledged.
+     */
+    public void compact() throws IOException {
+        lock.lock();
+        try {
+            ensureOpen();
+            maintain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            for (Segment segment : segments) {
+                segment.force();
+                segment.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(long id, byte[] payload) throws IOException {
+        final Segment segment = writable(payload.length);
+        final int offset = segment.append(Segment.PUT, id, payload, options.isSyncOnWrite());
+
+        segment.puts++;
+        segment.live.add(id);
+        pending.put(id, new Location(segment, offset, payload.length));
+    }
+
+    /**
+     * Returns the current segment, or a new one when the current segment has no room left for the record.
+     */
+    private Segment writable(int length) throws IOException {
+        final Segment current = segments.getLast();
+
+        if (current.hasRoom(length)) {
+            return current;
+        }
+
+        current.force();
+        final long sequence = current.sequence() + 1;
+        final Segment next = Segment.create(segmentPath(sequence), sequence, Math.max(options.getSegmentSize(), Segment.HEADER_SIZE + length));
+        segments.add(next);
+        return next;
+    }
+
+    private void maintain() throws IOException {
+        while (segments.size() > 1) {
+            final Segment oldest = segments.getFirst();
+
+            if (!oldest.live.isEmpty()) {
+                if (oldest.live.size() >= oldest.puts * options.getCompactionThreshold()) {
+                    return;
+                }
+
+                // Copy the few pending notifications to the current segment, keeping their ids.
+                for (Long id : new ArrayList<>(oldest.live)) {
+                    final Location location = pending.get(id);
+                    if (location == null || location.segment != oldest) {
+                        // Acknowledged, or already copied to a newer segment.
+                        continue;
+                    }
+                    put(id, oldest.read(location.offset, location.length));
+                }
+            }
+
+            segments.removeFirst();
+            oldest.delete();
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return options.getDirectory().resolve(String.format("segment-%020d.outbox", sequence));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Outbox is closed");
+        }
+    }
+
+    private static final class Location {
+
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The persisted form of a notification.
+     */
+    private static final class Payload {
+
+        public Notification notification;
+
+        public Map<String, Object> parameters;
+
+        private Payload() {}
+
+        private Payload(Notification notification, Map<String, Object> parameters) {
+            this.notification = notification;
+            this.parameters = parameters;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.outbox;
+
+import io.gravitee.notifier.api.NotificationRequest;
+
+/**
+ * A notification persisted in an {@link Outbox} and not acknowledged yet.
+ *
+ * @author GraviteeSource Team
+ */
+public final class OutboxEntry {
+
+    private final long id;
+
+    private final NotificationRequest request;
+
+    OutboxEntry(long id, NotificationRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    /**
+     * Returns the id of the entry, to be given to {@link Outbox#acknowledge(long)} once the notification is sent.
+     */
+    public long getId() {
+        return id;
+    }
+
+    public NotificationRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEntry{" + "id=" + id + ", type=" + request.getNotification().getType() + '}';
+    }
+}
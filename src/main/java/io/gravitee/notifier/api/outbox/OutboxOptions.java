@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.outbox;
+
+import java.nio.file.Path;
+
+/**
+ * Options of an {@link Outbox}.
+ *
+ * @author GraviteeSource Team
+ */
+public class OutboxOptions {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final double DEFAULT_COMPACTION_THRESHOLD = 0.25;
+
+    /**
+     * The directory holding the segments of the journal, created if it does not exist.
+     */
+    private final Path directory;
+
+    /**
+     * The size of a segment file, in bytes. A record larger than a segment gets a segment of its own.
+     */
+    private final int segmentSize;
+
+    /**
+     * The ratio of pending entries below which the oldest segment is compacted, by copying its pending entries to the
+     * current segment and deleting it.
+     */
+    private final double compactionThreshold;
+
+    /**
+     * Whether each write is forced to the storage device before returning. Without it, writes survive a crash of the
+     * process, but not a crash of the operating system.
+     */
+    private final boolean syncOnWrite;
+
+    private OutboxOptions(Path directory, int segmentSize, double compactionThreshold, boolean syncOnWrite) {
+        if (directory == null) {
+            throw new IllegalArgumentException("The outbox directory is required");
+        }
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("The segment size must be at least 1024 bytes");
+        }
+        if (compactionThreshold < 0 || compactionThreshold > 1) {
+            throw new IllegalArgumentException("The compaction threshold must be between 0 and 1");
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public boolean isSyncOnWrite() {
+        return syncOnWrite;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "OutboxOptions{" +
+            "directory=" +
+            directory +
+            ", segmentSize=" +
+            segmentSize +
+            ", compactionThreshold=" +
+            compactionThreshold +
+            ", syncOnWrite=" +
+            syncOnWrite +
+            '}'
+        );
+    }
+
+    public static class Builder {
+
+        private Path directory;
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+        private boolean syncOnWrite;
+
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder segmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        public Builder compactionThreshold(double compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        public Builder syncOnWrite(boolean syncOnWrite) {
+            this.syncOnWrite = syncOnWrite;
+            return this;
+        }
+
+        public OutboxOptions build() {
+            return new OutboxOptions(directory, segmentSize, compactionThreshold, syncOnWrite);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.outbox;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * A memory-mapped file of the outbox journal. Records are appended one after the other:
+ *
+ * <pre>
+ * | type (1) | length (4) | crc (4) | id (8) | payload (length) |
+ * </pre>
+ *
+ * The CRC covers the id and the payload, and the type is written last: a record is only considered as written once
+ * its type is set, and the first record with an unknown type or an invalid CRC marks the end of the segment. The file is
+ * mapped at its full size when created, so the unwritten part of the segment is zeroed.
+ *
+ * Not thread-safe, guarded by the lock of the {@link Outbox}.
+ *
+ * @author GraviteeSource Team
+ */
+final class Segment {
+
+    static final byte PUT = 1;
+    static final byte ACK = 2;
+
+    static final int HEADER_SIZE = 1 + 4 + 4 + 8;
+
+    private static final int LENGTH_OFFSET = 1;
+    private static final int CRC_OFFSET = 5;
+    private static final int ID_OFFSET = 9;
+
+    private final long sequence;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * Ids of the entries put in this segment and not acknowledged yet.
+     */
+    final Set<Long> live = new HashSet<>();
+
+    /**
+     * Number of entries put in this segment.
+     */
+    int puts;
+
+    private int position;
+
+    private Segment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Segment create(Path path, long sequence, int size) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    static Segment open(Path path, long sequence) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+    }
+
+    /**
+     * Reads the records of the segment, stopping at the first incomplete or corrupted one, where the next records will
+     * be appended.
+     */
+    void scan(RecordVisitor visitor) {
+        int offset = 0;
+
+        while (offset + HEADER_SIZE <= buffer.capacity()) {
+            final byte type = buffer.get(offset);
+            if (type != PUT && type != ACK) {
+                break;
+            }
+
+            final int length = buffer.getInt(offset + LENGTH_OFFSET);
+            if (length < 0 || length > buffer.capacity() - offset - HEADER_SIZE) {
+                break;
+            }
+            if (checksum(offset, length) != buffer.getInt(offset + CRC_OFFSET)) {
+                break;
+            }
+
+            visitor.visit(type, buffer.getLong(offset + ID_OFFSET), offset + HEADER_SIZE, length);
+            offset += HEADER_SIZE + length;
+        }
+
+        position = offset;
+    }
+
+    boolean hasRoom(int length) {
+        return position + HEADER_SIZE + length <= buffer.capacity();
+    }
+
+    /**
+     * Appends a record, the segment must have room for it.
+     *
+     * @return the offset of the payload of the record.
+     */
+    int append(byte type, long id, byte[] payload, boolean sync) {
+        final int offset = position;
+        final int length = payload == null ? 0 : payload.length;
+
+        buffer.putInt(offset + LENGTH_OFFSET, length);
+        buffer.putLong(offset + ID_OFFSET, id);
+        if (length > 0) {
+            buffer.put(offset + HEADER_SIZE, payload);
+        }
+        buffer.putInt(offset + CRC_OFFSET, checksum(offset, length));
+        buffer.put(offset, type);
+
+        if (sync) {
+            buffer.force(offset, HEADER_SIZE + length);
+        }
+
+        position = offset + HEADER_SIZE + length;
+        return offset + HEADER_SIZE;
+    }
+
+    byte[] read(int offset, int length) {
+        final byte[] payload = new byte[length];
+        buffer.get(offset, payload);
+        return payload;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    int size() {
+        return buffer.capacity();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    private int checksum(int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset + ID_OFFSET, 8 + length));
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return "Segment{" + "path=" + path + ", position=" + position + ", puts=" + puts + ", live=" + live.size() + '}';
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(byte type, long id, int offset, int length);
+    }
+}
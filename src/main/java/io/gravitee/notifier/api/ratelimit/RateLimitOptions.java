@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.ratelimit;
+
+import io.gravitee.notifier.api.Notification;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Rate limits applied to the sends of a notifier, as a whole and per target.
+ *
+ * The target of a notification (e.g. a webhook url, a Slack channel or a phone number) is extracted from the
+ * notification by a key function, typically from its configuration.
+ *
+ * @author GraviteeSource Team
+ */
+public class RateLimitOptions {
+
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+    private static final int DEFAULT_MAX_TARGETS = 10_000;
+
+    /**
+     * Sends per second allowed for the notifier as a whole, zero or less for no limit.
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * Sends allowed at once for the notifier as a whole.
+     */
+    private final int burst;
+
+    /**
+     * Sends per second allowed for a single target, zero or less for no limit.
+     */
+    private final double targetPermitsPerSecond;
+
+    /**
+     * Sends allowed at once for a single target.
+     */
+    private final int targetBurst;
+
+    /**
+     * Extracts the target of a notification, <code>null</code> meaning the notification is not limited per target.
+     */
+    private final Function<Notification, String> targetKey;
+
+    /**
+     * The maximum number of targets tracked at the same time, least recently used ones are forgotten.
+     */
+    private final int maxTargets;
+
+    private final ThrottleMode mode;
+
+    /**
+     * The maximum time a send can be delayed when the mode is {@link ThrottleMode#DELAY}.
+     */
+    private final Duration maxDelay;
+
+    private RateLimitOptions(
+        double permitsPerSecond,
+        int burst,
+        double targetPermitsPerSecond,
+        int targetBurst,
+        Function<Notification, String> targetKey,
+        int maxTargets,
+        ThrottleMode mode,
+        Duration maxDelay
+    ) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(burst, 1);
+        this.targetPermitsPerSecond = targetPermitsPerSecond;
+        this.targetBurst = Math.max(targetBurst, 1);
+        this.targetKey = targetKey;
+        this.maxTargets = maxTargets;
+        this.mode = mode == null ? ThrottleMode.REJECT : mode;
+        this.maxDelay = maxDelay == null ? DEFAULT_MAX_DELAY : maxDelay;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public double getTargetPermitsPerSecond() {
+        return targetPermitsPerSecond;
+    }
+
+    public int getTargetBurst() {
+        return targetBurst;
+    }
+
+    public Function<Notification, String> getTargetKey() {
+        return targetKey;
+    }
+
+    public int getMaxTargets() {
+        return maxTargets;
+    }
+
+    public ThrottleMode getMode() {
+        return mode;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "RateLimitOptions{" +
+            "permitsPerSecond=" +
+            permitsPerSecond +
+            ", burst=" +
+            burst +
+            ", targetPermitsPerSecond=" +
+            targetPermitsPerSecond +
+            ", targetBurst=" +
+            targetBurst +
+            ", mode=" +
+            mode +
+            ", maxDelay=" +
+            maxDelay +
+            '}'
+        );
+    }
+
+    public static class Builder {
+
+        private double permitsPerSecond;
+        private int burst = 1;
+        private double targetPermitsPerSecond;
+        private int targetBurst = 1;
+        private Function<Notification, String> targetKey;
+        private int maxTargets = DEFAULT_MAX_TARGETS;
+        private ThrottleMode mode = ThrottleMode.REJECT;
+        private Duration maxDelay = DEFAULT_MAX_DELAY;
+
+        public Builder permitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+            return this;
+        }
+
+        public Builder burst(int burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        public Builder targetPermitsPerSecond(double targetPermitsPerSecond) {
+            this.targetPermitsPerSecond = targetPermitsPerSecond;
+            return this;
+        }
+
+        public Builder targetBurst(int targetBurst) {
+            this.targetBurst = targetBurst;
+            return this;
+        }
+
+        public Builder targetKey(Function<Notification, String> targetKey) {
+            this.targetKey = targetKey;
+            return this;
+        }
+
+        public Builder maxTargets(int maxTargets) {
+            this.maxTargets = maxTargets;
+            return this;
+        }
+
+        public Builder mode(ThrottleMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public RateLimitOptions build() {
+            return new RateLimitOptions(permitsPerSecond, burst, targetPermitsPerSecond, targetBurst, targetKey, maxTargets, mode, maxDelay);
+        }
+    }
+}
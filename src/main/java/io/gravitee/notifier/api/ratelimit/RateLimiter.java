@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.ratelimit;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.cache.BoundedCache;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies the {@link RateLimitOptions} of a notifier, using one token bucket for the notifier and one per target.
+ *
+ * @author GraviteeSource Team
+ */
+public class RateLimiter {
+
+    private final RateLimitOptions options;
+
+    private final TokenBucket bucket;
+
+    private final BoundedCache<String, TokenBucket> targets;
+
+    private final long maxWaitNanos;
+
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+
+    public RateLimiter(RateLimitOptions options) {
+        this.options = options;
+        this.bucket = options.getPermitsPerSecond() > 0 ? new TokenBucket(options.getPermitsPerSecond(), options.getBurst()) : null;
+        this.targets =
+            options.getTargetKey() != null && options.getTargetPermitsPerSecond() > 0 ? new BoundedCache<>(options.getMaxTargets()) : null;
+        this.maxWaitNanos = options.getMode() == ThrottleMode.DELAY ? options.getMaxDelay().toNanos() : 0;
+    }
+
+    /**
+     * Takes a token for the notification, from the notifier bucket and from the bucket of its target.
+     *
+     * @return <code>0</code> if the notification can be sent right away, the time to wait, in nanoseconds, before
+     * sending it, or <code>-1</code> if it must be rejected.
+     */
+    public long acquire(Notification notification) {
+        long wait = 0;
+
+        if (bucket != null) {
+            wait = bucket.reserve(maxWaitNanos);
+            if (wait < 0) {
+                throttled.increment();
+                return -1;
+            }
+        }
+
+        final TokenBucket target = target(notification);
+        if (target != null) {
+            final long targetWait = target.reserve(maxWaitNanos);
+            if (targetWait < 0) {
+                if (bucket != null) {
+                    bucket.refund();
+                }
+                throttled.increment();
+                return -1;
+            }
+            wait = Math.max(wait, targetWait);
+        }
+
+        if (wait > 0) {
+            delayed.increment();
+        }
+
+        return wait;
+    }
+
+    private TokenBucket target(Notification notification) {
+        if (targets == null) {
+            return null;
+        }
+
+        final String key = options.getTargetKey().apply(notification);
+        if (key == null) {
+            return null;
+        }
+
+        return targets.get(key, ignore -> new TokenBucket(options.getTargetPermitsPerSecond(), options.getTargetBurst()));
+    }
+
+    public RateLimitOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns the number of tokens currently available for the notifier, {@link Double#POSITIVE_INFINITY} if not limited.
+     */
+    public double availableTokens() {
+        return bucket == null ? Double.POSITIVE_INFINITY : bucket.availableTokens();
+    }
+
+    /**
+     * Returns the number of tokens currently available for the specified target, {@link Double#POSITIVE_INFINITY} if not
+     * limited.
+     */
+    public double availableTokens(String target) {
+        final TokenBucket targetBucket = targets == null ? null : targets.getIfPresent(target);
+        if (targetBucket == null) {
+            return targets == null ? Double.POSITIVE_INFINITY : options.getTargetBurst();
+        }
+        return targetBucket.availableTokens();
+    }
+
+    /**
+     * Returns the number of sends rejected because of the rate limit.
+     */
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    /**
+     * Returns the number of sends delayed because of the rate limit.
+     */
+    public long delayed() {
+        return delayed.sum();
+    }
+}
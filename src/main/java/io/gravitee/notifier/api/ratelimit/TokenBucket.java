@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket.
+ *
+ * Instead of counting tokens, the bucket keeps track of the theoretical time at which it will be full again (this is
+ * the Generic Cell Rate Algorithm). Taking a token is then a single compare-and-set on that time.
+ *
+ * @author GraviteeSource Team
+ */
+public class TokenBucket {
+
+    private final long origin = System.nanoTime();
+
+    /**
+     * Time needed to refill a single token.
+     */
+    private final long intervalNanos;
+
+    /**
+     * Time needed to refill the whole bucket.
+     */
+    private final long capacityNanos;
+
+    /**
+     * Time, relative to the origin, at which the bucket will be full. The bucket starts full.
+     */
+    private final AtomicLong fullAt = new AtomicLong();
+
+    public TokenBucket(double tokensPerSecond, int capacity) {
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("The refill rate must be strictly positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be strictly positive");
+        }
+
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = intervalNanos * capacity;
+    }
+
+    /**
+     * Takes a token, possibly in advance.
+     *
+     * @param maxWaitNanos the maximum time the caller accepts to wait for the token.
+     * @return <code>0</code> if the token can be used right away, the time to wait before using it, or <code>-1</code>
+     * if the token would not be available before the maximum wait time, in which case no token is taken.
+     */
+    public long reserve(long maxWaitNanos) {
+        for (;;) {
+            final long now = System.nanoTime() - origin;
+            final long current = fullAt.get();
+            final long next = Math.max(current, now) + intervalNanos;
+            final long wait = next - now - capacityNanos;
+
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+
+            if (fullAt.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Takes a token only if it can be used right away.
+     */
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    /**
+     * Gives back a token which has been taken but not used.
+     */
+    public void refund() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * Returns the number of tokens currently available, negative when tokens have been reserved in advance.
+     */
+    public double availableTokens() {
+        final long now = System.nanoTime() - origin;
+        final long backlog = Math.max(fullAt.get(), now) - now;
+        return (double) (capacityNanos - backlog) / intervalNanos;
+    }
+}
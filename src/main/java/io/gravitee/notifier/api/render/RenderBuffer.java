@@ -0,0 +1,286 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.render;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A growable, unsynchronized, character buffer taken from a shared pool, into which templates are rendered. Closing
+ * the buffer gives its storage back to the pool, so it must not be used afterwards:
+ *
+ * <pre>
+ * try (RenderBuffer body = templatizeToBuffer(template, parameters)) {
+ *     body.writeTo(connection.getOutputStream(), StandardCharsets.UTF_8);
+ * }
+ * </pre>
+ *
+ * The pool keeps up to <code>gravitee.notifier.render.pool.size</code> buffers (64 by default), and buffers grown
+ * beyond <code>gravitee.notifier.render.pool.maxRetainedChars</code> characters (256K by default) are shrunk before
+ * being given back, so that an exceptionally large payload does not stay in memory.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RenderBuffer extends Writer {
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private static final int ENCODING_CHUNK_SIZE = 8192;
+
+    private static final int POOL_SIZE = Integer.getInteger("gravitee.notifier.render.pool.size", 64);
+
+    private static final int MAX_RETAINED_CHARS = Integer.getInteger("gravitee.notifier.render.pool.maxRetainedChars", 256 * 1024);
+
+    private static final char[] RELEASED = new char[0];
+
+    /**
+     * Storages are reused last in first out, so that the most recently used ones, likely still in the CPU caches, are
+     * used first.
+     */
+    private static final ConcurrentLinkedDeque<Storage> POOL = new ConcurrentLinkedDeque<>();
+
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    /**
+     * The pooled storage, <code>null</code> once given back to the pool. Each acquisition gets its own buffer, so that
+     * closing a buffer again never gives back a storage acquired by someone else in the meantime.
+     */
+    private Storage storage;
+
+    private char[] chars;
+
+    private int count;
+
+    private RenderBuffer(Storage storage) {
+        this.storage = storage;
+        this.chars = storage.chars;
+    }
+
+    /**
+     * Takes an empty buffer from the pool, or creates a new one if the pool is empty.
+     */
+    public static RenderBuffer acquire() {
+        Storage storage = POOL.pollFirst();
+
+        if (storage == null) {
+            storage = new Storage();
+        } else {
+            POOLED.decrementAndGet();
+        }
+
+        return new RenderBuffer(storage);
+    }
+
+    /**
+     * Returns the number of buffers currently available in the pool.
+     */
+    public static int pooled() {
+        return POOLED.get();
+    }
+
+    @Override
+    public void write(int c) {
+        ensureCapacity(count + 1);
+        chars[count++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] source, int offset, int length) {
+        ensureCapacity(count + length);
+        System.arraycopy(source, offset, chars, count, length);
+        count += length;
+    }
+
+    @Override
+    public void write(String source, int offset, int length) {
+        ensureCapacity(count + length);
+        source.getChars(offset, offset + length, chars, count);
+        count += length;
+    }
+
+    @Override
+    public RenderBuffer append(CharSequence sequence) {
+        final String value = String.valueOf(sequence);
+        write(value, 0, value.length());
+        return this;
+    }
+
+    /**
+     * Returns the number of characters rendered into this buffer.
+     */
+    public int length() {
+        return count;
+    }
+
+    /**
+     * Returns a read-only view on the rendered characters, without copying them. The view is only valid until the
+     * buffer is closed.
+     */
+    public CharBuffer asCharBuffer() {
+        return CharBuffer.wrap(chars, 0, count).asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes the rendered characters to the specified writer, which is neither flushed nor closed.
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write(chars, 0, count);
+    }
+
+    /**
+     * Encodes the rendered characters with the specified charset straight into the output stream, by chunks, without
+     * building the whole encoded payload in memory. The stream is neither flushed nor closed. Malformed or unmappable
+     * characters are replaced, as {@link String#getBytes(Charset)} does.
+     */
+    public void writeTo(OutputStream out, Charset charset) throws IOException {
+        final CharsetEncoder encoder = encoder(charset);
+        final ByteBuffer bytes = bytes();
+        final CharBuffer in = CharBuffer.wrap(chars, 0, count);
+
+        CoderResult result;
+        do {
+            result = encoder.encode(in, bytes, true);
+            drain(bytes, out);
+        } while (result.isOverflow());
+
+        do {
+            result = encoder.flush(bytes);
+            drain(bytes, out);
+        } while (result.isOverflow());
+    }
+
+    /**
+     * Returns the rendered characters encoded with the specified charset.
+     */
+    public byte[] toByteArray(Charset charset) {
+        final ByteBuffer encoded = charset.encode(CharBuffer.wrap(chars, 0, count));
+        final byte[] result = new byte[encoded.remaining()];
+        encoded.get(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Clears the buffer so that it can be rendered into again, without giving it back to the pool.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    @Override
+    public void flush() {}
+
+    /**
+     * Gives the buffer back to the pool. Closing a buffer more than once has no effect.
+     */
+    @Override
+    public void close() {
+        final Storage storage = this.storage;
+
+        if (storage == null) {
+            return;
+        }
+
+        this.storage = null;
+        storage.chars = chars.length > MAX_RETAINED_CHARS ? new char[INITIAL_CAPACITY] : chars;
+        chars = RELEASED;
+        count = 0;
+
+        if (POOLED.incrementAndGet() <= POOL_SIZE) {
+            POOL.offerFirst(storage);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    private Storage storage() {
+        final Storage storage = this.storage;
+
+        if (storage == null) {
+            throw new IllegalStateException("Render buffer used after being closed");
+        }
+
+        return storage;
+    }
+
+    private void ensureCapacity(int capacity) {
+        storage();
+
+        if (capacity > chars.length) {
+            if (capacity < 0) {
+                throw new OutOfMemoryError("Rendered content is too large");
+            }
+            chars = Arrays.copyOf(chars, Math.max(capacity, chars.length << 1));
+        }
+    }
+
+    private CharsetEncoder encoder(Charset charset) {
+        final Storage storage = storage();
+        CharsetEncoder encoder = storage.encoder;
+
+        if (encoder == null || !encoder.charset().equals(charset)) {
+            encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+            storage.encoder = encoder;
+        } else {
+            encoder.reset();
+        }
+
+        return encoder;
+    }
+
+    private ByteBuffer bytes() {
+        final Storage storage = storage();
+
+        if (storage.bytes == null) {
+            storage.bytes = ByteBuffer.allocate(ENCODING_CHUNK_SIZE);
+        }
+
+        storage.bytes.clear();
+        return storage.bytes;
+    }
+
+    private static void drain(ByteBuffer bytes, OutputStream out) throws IOException {
+        bytes.flip();
+        out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        bytes.clear();
+    }
+
+    /**
+     * The reusable parts of a buffer.
+     */
+    private static final class Storage {
+
+        private char[] chars = new char[INITIAL_CAPACITY];
+
+        private ByteBuffer bytes;
+
+        private CharsetEncoder encoder;
+    }
+}
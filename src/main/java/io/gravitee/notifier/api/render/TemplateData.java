@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.render;
+
+import freemarker.template.Configuration;
+import freemarker.template.DefaultObjectWrapperBuilder;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parameters of a notification along with their FreeMarker data model, built once and reused by every rendering.
+ *
+ * Without it, FreeMarker wraps the parameters map, and then each of the values read by the template, on every
+ * rendering. When an event is sent to many recipients, or to many notifiers, build the parameters once with
+ * {@link #of(Map)} and send them as is: the values are wrapped the first time a template reads them, and the wrapped
+ * values are then shared by all the following renderings, whatever the template. The result of each template is also
+ * kept, see {@link #render(String, Renderer)}, so a template rendered for many recipients is only rendered once.
+ *
+ * The parameters are exposed as an unmodifiable map, and must not be modified once wrapped.
+ *
+ * @author GraviteeSource Team
+ */
+public final class TemplateData extends AbstractMap<String, Object> {
+
+    /**
+     * Object wrapper of the data models, with the default settings of the template configuration, so that templates
+     * behave the same whether their parameters are a data model or a plain map. The class introspection done to expose
+     * beans is cached by the wrapper for the lifetime of the application.
+     */
+    private static final ObjectWrapper OBJECT_WRAPPER = new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_32).build();
+
+    private final Map<String, Object> parameters;
+
+    private final Model model = new Model();
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> renders = new ConcurrentHashMap<>();
+
+    private TemplateData(Map<String, Object> parameters) {
+        this.parameters = Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Returns the data model of the specified parameters, or the parameters themselves if they already are a data model.
+     */
+    public static TemplateData of(Map<String, Object> parameters) {
+        if (parameters instanceof TemplateData) {
+            return (TemplateData) parameters;
+        }
+
+        return new TemplateData(parameters == null ? Collections.emptyMap() : parameters);
+    }
+
+    /**
+     * Returns the object wrapper used to build the data models. It is only used for data models, plain parameters are
+     * wrapped by the default wrapper of the template configuration.
+     */
+    public static ObjectWrapper objectWrapper() {
+        return OBJECT_WRAPPER;
+    }
+
+    /**
+     * Returns the FreeMarker view of the parameters, to be given to {@link freemarker.template.Template#process(Object, java.io.Writer)}.
+     */
+    public TemplateHashModel model() {
+        return model;
+    }
+
+    /**
+     * Returns the result of the template rendered with these parameters, rendering it with the renderer the first time.
+     * Threads asking for a template being rendered wait for the result rather than rendering it again. A failed rendering
+     * is not kept.
+     */
+    public String render(String template, Renderer renderer) throws IOException, TemplateException {
+        CompletableFuture<String> rendered = renders.get(template);
+
+        if (rendered == null) {
+            final CompletableFuture<String> rendering = new CompletableFuture<>();
+            rendered = renders.putIfAbsent(template, rendering);
+
+            if (rendered == null) {
+                try {
+                    final String result = renderer.render(template);
+                    rendering.complete(result);
+                    return result;
+                } catch (IOException | TemplateException | RuntimeException | Error e) {
+                    renders.remove(template, rendering);
+                    rendering.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+
+        try {
+            return rendered.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof TemplateException) {
+                throw (TemplateException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        return parameters.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return parameters.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return parameters.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return parameters.entrySet();
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        String render(String template) throws IOException, TemplateException;
+    }
+
+    private final class Model implements TemplateHashModel {
+
+        private final ConcurrentHashMap<String, TemplateModel> wrapped = new ConcurrentHashMap<>();
+
+        @Override
+        public TemplateModel get(String key) throws TemplateModelException {
+            final TemplateModel cached = wrapped.get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            final Object value = parameters.get(key);
+            if (value == null) {
+                return null;
+            }
+
+            // Wrapping is idempotent, concurrent renderings may both wrap the value but only the first model is kept.
+            final TemplateModel model = OBJECT_WRAPPER.wrap(value);
+            final TemplateModel previous = wrapped.putIfAbsent(key, model);
+            return previous != null ? previous : model;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return parameters.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.retry;
+
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs sends and retries the failed ones according to a {@link RetryPolicy}.
+ *
+ * Waiting for the next attempt does not hold any thread: attempts are scheduled on a shared {@link HashedWheelTimer}.
+ *
+ * @author GraviteeSource Team
+ */
+public class Retrier {
+
+    private final RetryPolicy policy;
+
+    private final HashedWheelTimer timer;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public Retrier(RetryPolicy policy, HashedWheelTimer timer) {
+        this.policy = policy;
+        this.timer = timer;
+    }
+
+    /**
+     * Runs the send, then runs it again as long as it fails and the policy allows it.
+     *
+     * @param send starts an attempt and returns its result.
+     * @return the result of the last attempt.
+     */
+    public CompletableFuture<Void> execute(Supplier<CompletableFuture<Void>> send) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        attempt(send, 1, result);
+        return result;
+    }
+
+    private void attempt(Supplier<CompletableFuture<Void>> send, int attempt, CompletableFuture<Void> result) {
+        if (result.isDone()) {
+            // Cancelled by the caller while waiting.
+            return;
+        }
+
+        CompletableFuture<Void> sent;
+        try {
+            sent = send.get();
+        } catch (Throwable throwable) {
+            sent = CompletableFuture.failedFuture(throwable);
+        }
+
+        sent.whenComplete((ignore, throwable) -> {
+            if (throwable == null) {
+                result.complete(null);
+            } else if (!result.isDone() && policy.shouldRetry(attempt, throwable)) {
+                retries.increment();
+                waiting.incrementAndGet();
+                timer.schedule(
+                    () -> {
+                        waiting.decrementAndGet();
+                        attempt(send, attempt + 1, result);
+                    },
+                    policy.delayMillis(attempt),
+                    TimeUnit.MILLISECONDS
+                );
+            } else {
+                if (attempt > 1) {
+                    exhausted.increment();
+                }
+                result.completeExceptionally(RetryPolicy.unwrap(throwable));
+            }
+        });
+    }
+
+    public RetryPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of sends currently waiting for their next attempt.
+     */
+    public int retriesInFlight() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the number of retries scheduled so far.
+     */
+    public long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of sends which failed after having been retried.
+     */
+    public long exhausted() {
+        return exhausted.sum();
+    }
+}
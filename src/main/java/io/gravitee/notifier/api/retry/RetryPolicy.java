@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.retry;
+
+import io.gravitee.notifier.api.exception.CircuitBreakerOpenException;
+import io.gravitee.notifier.api.exception.NotifierRejectedException;
+import io.gravitee.notifier.api.exception.NotifierThrottledException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Defines how failed sends are retried: how many times, how long to wait between two attempts and which failures are
+ * worth retrying.
+ *
+ * The delay grows exponentially with each attempt, up to a maximum, and is randomized by a jitter factor so that
+ * notifications failing at the same time are not all retried at the same time.
+ *
+ * @author GraviteeSource Team
+ */
+public class RetryPolicy {
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final Duration DEFAULT_INITIAL_DELAY = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofMinutes(1);
+    private static final double DEFAULT_MULTIPLIER = 2;
+    private static final double DEFAULT_JITTER = 0.2;
+
+    /**
+     * The maximum number of attempts, including the first one.
+     */
+    private final int maxAttempts;
+
+    private final long initialDelayMillis;
+
+    private final long maxDelayMillis;
+
+    private final double multiplier;
+
+    /**
+     * The delay is randomized between <code>delay * (1 - jitter)</code> and <code>delay * (1 + jitter)</code>.
+     */
+    private final double jitter;
+
+    private final Predicate<Throwable> retryable;
+
+    private RetryPolicy(
+        int maxAttempts,
+        Duration initialDelay,
+        Duration maxDelay,
+        double multiplier,
+        double jitter,
+        Predicate<Throwable> retryable
+    ) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("The maximum number of attempts must be strictly positive");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("The delay multiplier must be greater than or equal to 1");
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("The jitter must be between 0 and 1");
+        }
+
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelay.toMillis();
+        this.maxDelayMillis = Math.max(maxDelay.toMillis(), initialDelayMillis);
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryable = retryable;
+    }
+
+    /**
+     * Indicates if the send should be attempted again after the specified failure.
+     *
+     * @param attempt the number of attempts already made.
+     * @param failure the failure of the last attempt.
+     */
+    public boolean shouldRetry(int attempt, Throwable failure) {
+        return attempt < maxAttempts && retryable.test(unwrap(failure));
+    }
+
+    /**
+     * Returns the delay to wait, in milliseconds, before the next attempt.
+     *
+     * @param attempt the number of attempts already made.
+     */
+    public long delayMillis(int attempt) {
+        final double delay = Math.min(initialDelayMillis * Math.pow(multiplier, attempt - 1), maxDelayMillis);
+        final double factor = jitter == 0 ? 1 : 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(0, Math.round(delay * factor));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Any {@link Exception} is retryable, except the ones raised when the notifier sheds load: retrying them would only
+     * add to the load.
+     */
+    private static boolean isRetryableByDefault(Throwable failure) {
+        return (
+            failure instanceof Exception &&
+            !(failure instanceof NotifierThrottledException) &&
+            !(failure instanceof NotifierRejectedException) &&
+            !(failure instanceof CircuitBreakerOpenException)
+        );
+    }
+
+    static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "RetryPolicy{" +
+            "maxAttempts=" +
+            maxAttempts +
+            ", initialDelayMillis=" +
+            initialDelayMillis +
+            ", maxDelayMillis=" +
+            maxDelayMillis +
+            ", multiplier=" +
+            multiplier +
+            ", jitter=" +
+            jitter +
+            '}'
+        );
+    }
+
+    public static class Builder {
+
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        private Duration initialDelay = DEFAULT_INITIAL_DELAY;
+        private Duration maxDelay = DEFAULT_MAX_DELAY;
+        private double multiplier = DEFAULT_MULTIPLIER;
+        private double jitter = DEFAULT_JITTER;
+        private Predicate<Throwable> retryable = RetryPolicy::isRetryableByDefault;
+
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder initialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        public Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Only retries failures matching the predicate. By default, any {@link Exception} is retried, except
+         * {@link NotifierThrottledException}, {@link NotifierRejectedException} and {@link CircuitBreakerOpenException}.
+         */
+        public Builder retryIf(Predicate<Throwable> retryable) {
+            this.retryable = retryable;
+            return this;
+        }
+
+        /**
+         * Only retries failures of the specified types.
+         */
+        @SafeVarargs
+        public final Builder retryOn(Class<? extends Throwable>... types) {
+            this.retryable =
+                failure -> {
+                    for (Class<? extends Throwable> type : types) {
+                        if (type.isInstance(failure)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+            return this;
+        }
+
+        /**
+         * Never retries failures of the specified types, in addition to the failures already excluded.
+         */
+        @SafeVarargs
+        public final Builder abortOn(Class<? extends Throwable>... types) {
+            final Predicate<Throwable> retryable = this.retryable;
+            this.retryable =
+                failure -> {
+                    for (Class<? extends Throwable> type : types) {
+                        if (type.isInstance(failure)) {
+                            return false;
+                        }
+                    }
+                    return retryable.test(failure);
+                };
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, retryable);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.stream;
+
+import io.gravitee.notifier.api.DeliveryOutcome;
+import io.gravitee.notifier.api.NotificationRequest;
+import io.gravitee.notifier.api.Notifier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the notifications received from an upstream {@link Flow.Publisher} and publishes the outcome of each delivery.
+ *
+ * Demand is driven by the downstream subscriber and by the notifier itself: notifications are only requested from
+ * upstream when the downstream subscriber is ready to receive their outcome, and at most <code>maxInFlight</code>
+ * notifications are either being delivered or waiting for their outcome to be consumed. Outcomes are published in
+ * completion order, which may differ from the order notifications were received in.
+ *
+ * This processor supports a single downstream subscriber.
+ *
+ * @author GraviteeSource Team
+ */
+public class NotifierProcessor implements Flow.Processor<NotificationRequest, DeliveryOutcome> {
+
+    private final Notifier notifier;
+
+    private final int maxInFlight;
+
+    private volatile Flow.Subscription upstream;
+
+    private volatile Flow.Subscriber<? super DeliveryOutcome> downstream;
+
+    private final ConcurrentLinkedQueue<DeliveryOutcome> outcomes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of outcomes requested by the downstream subscriber.
+     */
+    private final AtomicLong requested = new AtomicLong();
+
+    /**
+     * Number of notifications requested from upstream and not yet received, being delivered or with an outcome not
+     * yet published.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Number of notifications being delivered.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger draining = new AtomicInteger();
+
+    /**
+     * Number of outcomes published, only accessed while draining.
+     */
+    private long published;
+
+    private volatile boolean upstreamDone;
+
+    private volatile Throwable upstreamError;
+
+    private volatile boolean cancelled;
+
+    private volatile Throwable invalidRequest;
+
+    private boolean terminated;
+
+    public NotifierProcessor(Notifier notifier, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of notifications in flight must be strictly positive");
+        }
+
+        this.notifier = notifier;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DeliveryOutcome> subscriber) {
+        synchronized (this) {
+            if (downstream != null) {
+                subscriber.onSubscribe(NoopSubscription.INSTANCE);
+                subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+                return;
+            }
+            downstream = subscriber;
+        }
+
+        subscriber.onSubscribe(new OutcomeSubscription());
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+
+        upstream = subscription;
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+
+        drain();
+    }
+
+    @Override
+    public void onNext(NotificationRequest request) {
+        inFlight.incrementAndGet();
+
+        CompletableFuture<Void> result;
+        try {
+            result = notifier.send(request.getNotification(), request.getParameters());
+        } catch (Throwable throwable) {
+            result = CompletableFuture.failedFuture(throwable);
+        }
+
+        result.whenComplete((ignore, throwable) -> {
+            outcomes.offer(throwable == null ? DeliveryOutcome.success(request) : DeliveryOutcome.failure(request, throwable));
+            inFlight.decrementAndGet();
+            drain();
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    /**
+     * Returns the number of notifications currently being delivered.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void drain() {
+        if (draining.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            final Flow.Subscriber<? super DeliveryOutcome> subscriber = downstream;
+
+            if (invalidRequest != null && subscriber != null && !terminated) {
+                terminated = true;
+                outcomes.clear();
+                subscriber.onError(invalidRequest);
+            } else if (cancelled) {
+                outcomes.clear();
+            } else if (subscriber != null && !terminated) {
+                final long demand = requested.get();
+
+                while (published != demand) {
+                    final DeliveryOutcome outcome = outcomes.poll();
+                    if (outcome == null) {
+                        break;
+                    }
+
+                    subscriber.onNext(outcome);
+                    published++;
+                    pending.decrementAndGet();
+                }
+
+                if (upstreamDone && inFlight.get() == 0 && outcomes.isEmpty()) {
+                    terminated = true;
+                    if (upstreamError != null) {
+                        subscriber.onError(upstreamError);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                } else if (!upstreamDone && upstream != null) {
+                    requestUpstream(demand);
+                }
+            }
+
+            missed = draining.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void requestUpstream(long demand) {
+        final int current = pending.get();
+        final long unmet = demand - published;
+        final long credit = Math.min(maxInFlight, unmet) - current;
+
+        if (credit > 0) {
+            pending.addAndGet((int) credit);
+            upstream.request(credit);
+        }
+    }
+
+    private class OutcomeSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested number of outcomes must be strictly positive");
+                cancelled = true;
+                cancelUpstream();
+                drain();
+                return;
+            }
+
+            requested.accumulateAndGet(n, (current, added) -> {
+                final long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelUpstream();
+            drain();
+        }
+
+        private void cancelUpstream() {
+            final Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    private enum NoopSubscription implements Flow.Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A timer approximating the expiration of a large number of timeouts with a low overhead.
+ *
+ * Timeouts are spread into the buckets of a wheel which turns by one bucket every tick. Scheduling a timeout is only
+ * a lock-free enqueue, a single worker thread moves them into the wheel and expires them. Expired tasks are run by an
+ * executor, never by the worker thread, so that a slow task does not delay the others. The accuracy of the timer is
+ * the tick duration.
+ *
+ * @author GraviteeSource Team
+ */
+public class HashedWheelTimer {
+
+    private static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickNanos;
+
+    private final List<Timeout>[] wheel;
+
+    private final int mask;
+
+    private final Executor executor;
+
+    private final String name;
+
+    private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * Released once {@link #startTime} is set, so that tasks scheduled while the timer is starting get a correct deadline.
+     */
+    private final CountDownLatch startLatch = new CountDownLatch(1);
+
+    private volatile long startTime;
+
+    private volatile boolean stopped;
+
+    private volatile Thread worker;
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor executor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("The tick duration must be strictly positive");
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("The wheel size must be strictly positive");
+        }
+
+        // Round the wheel size to a power of two to select buckets with a mask.
+        final int size = Integer.highestOneBit(wheelSize - 1) << 1;
+
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = newWheel(Math.max(size, 1));
+        this.mask = wheel.length - 1;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the timer shared by all the notifiers, expired tasks are run on virtual threads.
+     */
+    public static HashedWheelTimer shared() {
+        return Holder.SHARED;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static List<Timeout>[] newWheel(int size) {
+        final List<Timeout>[] wheel = new List[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        return wheel;
+    }
+
+    /**
+     * Schedules the task to be run after the specified delay.
+     *
+     * @return a handle to cancel the task.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer [" + name + "] has been stopped");
+        }
+
+        start();
+
+        final Timeout timeout = new Timeout(this, task, System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0)));
+        pending.incrementAndGet();
+        scheduled.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns the number of tasks waiting for their timeout to expire.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the timer, pending tasks are never run.
+     *
+     * @throws UnsupportedOperationException if this timer is the {@link #shared()} timer, which every notifier depends on.
+     */
+    public void stop() {
+        if (this == Holder.SHARED) {
+            throw new UnsupportedOperationException("The shared timer can not be stopped");
+        }
+
+        stopped = true;
+
+        final Thread worker = this.worker;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            startTime = System.nanoTime();
+            startLatch.countDown();
+
+            final Thread worker = new Thread(this::run, name);
+            worker.setDaemon(true);
+            this.worker = worker;
+            worker.start();
+        } else if (startLatch.getCount() > 0) {
+            // Started by another thread, which is about to set the start time.
+            awaitStart();
+        }
+    }
+
+    private void awaitStart() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                startLatch.await();
+                break;
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+
+        while (!stopped) {
+            final long deadline = (tick + 1) * tickNanos;
+
+            long sleep;
+            while ((sleep = deadline - (System.nanoTime() - startTime)) > 0) {
+                LockSupport.parkNanos(this, sleep);
+                if (stopped) {
+                    return;
+                }
+            }
+
+            transferScheduled(tick);
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferScheduled(long currentTick) {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+
+            final long expirationTick = Math.max(timeout.deadline / tickNanos, currentTick);
+            timeout.remainingRounds = (expirationTick - currentTick) / wheel.length;
+            wheel[(int) (expirationTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        int i = 0;
+        while (i < bucket.size()) {
+            final Timeout timeout = bucket.get(i);
+
+            if (timeout.isCancelled() || timeout.remainingRounds <= 0) {
+                // Remove by swapping with the last element, order does not matter within a bucket.
+                final Timeout last = bucket.remove(bucket.size() - 1);
+                if (i < bucket.size()) {
+                    bucket.set(i, last);
+                }
+
+                if (timeout.expire()) {
+                    dispatch(timeout);
+                }
+            } else {
+                timeout.remainingRounds--;
+                i++;
+            }
+        }
+    }
+
+    private void dispatch(Timeout timeout) {
+        try {
+            executor.execute(timeout.task);
+        } catch (Throwable throwable) {
+            // The executor refused the task, run it anyway rather than losing it.
+            timeout.task.run();
+        }
+    }
+
+    /**
+     * A handle on a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+
+        private final Runnable task;
+
+        /**
+         * Expiration time, relative to the start of the timer.
+         */
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        /**
+         * Number of turns of the wheel before expiration, only accessed by the worker.
+         */
+        private long remainingRounds;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not been run yet.
+         *
+         * @return <code>true</code> if the task has been cancelled, <code>false</code> if it already expired.
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                timer.pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private boolean expire() {
+            if (state.compareAndSet(WAITING, EXPIRED)) {
+                timer.pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Holder {
+
+        private static final HashedWheelTimer SHARED = new HashedWheelTimer(
+            "gravitee-notifier-timer",
+            DEFAULT_TICK_MILLIS,
+            TimeUnit.MILLISECONDS,
+            DEFAULT_WHEEL_SIZE,
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("gravitee-notifier-timeout-", 0).factory())
+        );
+    }
+}
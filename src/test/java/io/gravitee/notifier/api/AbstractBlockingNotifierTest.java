@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static io.gravitee.notifier.api.AbstractNotifierTest.notification;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.exception.NotifierTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class AbstractBlockingNotifierTest {
+
+    @Test
+    void shouldDeliverOnVirtualThreadsWithinConcurrencyCap() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Boolean> virtual = Collections.synchronizedList(new ArrayList<>());
+
+        final AbstractBlockingNotifier<NotifierConfiguration> notifier = new AbstractBlockingNotifier<>("blocking", null, 4) {
+            @Override
+            protected void deliver(Notification notification, Map<String, Object> parameters) throws Exception {
+                virtual.add(Thread.currentThread().isVirtual());
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                running.decrementAndGet();
+            }
+        };
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(notifier.send(notification("blocking"), Collections.emptyMap()));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+
+        assertEquals(50, virtual.size());
+        assertFalse(virtual.contains(false));
+        assertTrue(maxRunning.get() <= 4);
+        assertEquals(4, notifier.availableConcurrency());
+    }
+
+    @Test
+    void shouldReportDeliveryFailure() {
+        final AbstractBlockingNotifier<NotifierConfiguration> notifier = new AbstractBlockingNotifier<>("blocking", null) {
+            @Override
+            protected void deliver(Notification notification, Map<String, Object> parameters) {
+                throw new IllegalStateException("Unable to deliver");
+            }
+        };
+
+        final CompletableFuture<Void> result = notifier.send(notification("blocking"), Collections.emptyMap());
+
+        final CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void shouldInterruptDeliveryReachingItsDeadline() throws InterruptedException {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AbstractBlockingNotifier<NotifierConfiguration> notifier = new AbstractBlockingNotifier<>("blocking", null) {
+            @Override
+            protected void deliver(Notification notification, Map<String, Object> parameters) throws Exception {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException ie) {
+                    interrupted.countDown();
+                    throw ie;
+                }
+            }
+        };
+
+        final CompletableFuture<Void> result = notifier.send(notification("blocking"), Collections.emptyMap(), Duration.ofMillis(50));
+
+        final CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof NotifierTimeoutException);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
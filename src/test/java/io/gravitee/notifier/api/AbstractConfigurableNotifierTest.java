@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.render.RenderBuffer;
+import io.gravitee.notifier.api.render.TemplateData;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class AbstractConfigurableNotifierTest {
+
+    private final TestNotifier notifier = new TestNotifier();
+
+    @Test
+    void shouldParseConfigurationOnlyOnce() throws Exception {
+        final Notification first = notification("{\"url\":\"http://localhost/first\"}");
+        final Notification second = notification("{\"url\":\"http://localhost/first\"}");
+
+        final TestConfiguration configuration = notifier.readConfiguration(first, TestConfiguration.class);
+
+        assertEquals("http://localhost/first", configuration.url);
+        assertSame(configuration, notifier.readConfiguration(second, TestConfiguration.class));
+    }
+
+    @Test
+    void shouldParseDistinctConfigurations() throws Exception {
+        final TestConfiguration first = notifier.readConfiguration(
+            notification("{\"url\":\"http://localhost/1\"}"),
+            TestConfiguration.class
+        );
+        final TestConfiguration second = notifier.readConfiguration(
+            notification("{\"url\":\"http://localhost/2\"}"),
+            TestConfiguration.class
+        );
+
+        assertNotSame(first, second);
+        assertEquals("http://localhost/2", second.url);
+    }
+
+    @Test
+    void shouldNotShareConfigurationsWithOtherNotifierClasses() throws Exception {
+        final Notification notification = notification("{\"url\":\"http://localhost/shared\"}");
+
+        final TestConfiguration configuration = notifier.readConfiguration(notification, TestConfiguration.class);
+        final TestConfiguration overridden = new OverridingNotifier().readConfiguration(notification, TestConfiguration.class);
+
+        assertEquals("http://localhost/shared", configuration.url);
+        assertEquals("overridden", overridden.url);
+        assertNotSame(notifier.configurationCache(), new OverridingNotifier().configurationCache());
+        assertSame(notifier.configurationCache(), new TestNotifier().configurationCache());
+    }
+
+    @Test
+    void shouldReturnNullWithoutConfiguration() throws Exception {
+        assertNull(notifier.readConfiguration(notification(null), TestConfiguration.class));
+    }
+
+    @Test
+    void shouldRenderIntoWriterAndStream() throws Exception {
+        final StringWriter writer = new StringWriter();
+        notifier.templatize("Hello ${name}", Map.of("name", "World"), writer);
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        notifier.templatize("Bonjour ${name}", Map.of("name", "Zoé"), stream, StandardCharsets.UTF_8);
+
+        assertEquals("Hello World", writer.toString());
+        assertEquals("Bonjour Zoé", stream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRenderIntoPooledBuffer() throws Exception {
+        try (RenderBuffer rendered = notifier.templatizeToBuffer("Hello ${name}", Map.of("name", "World"))) {
+            assertEquals("Hello World", rendered.toString());
+        }
+
+        final int pooled = RenderBuffer.pooled();
+        try (RenderBuffer rendered = notifier.templatizeToBuffer("Hello ${name}", Map.of("name", "again"))) {
+            assertEquals(pooled - 1, RenderBuffer.pooled());
+            assertEquals("Hello again", rendered.toString());
+        }
+    }
+
+    @Test
+    void shouldRenderTemplateDataAgainstManyTemplates() throws Exception {
+        final TemplateData data = TemplateData.of(Map.of("name", "World"));
+
+        assertEquals("Hello World", notifier.templatize("Hello ${name}", data));
+        assertEquals("Bye World", notifier.templatize("Bye ${name}", data));
+    }
+
+    @Test
+    void shouldRenderTemplateOnlyOnceForTemplateData() throws Exception {
+        final TemplateData data = TemplateData.of(Map.of("name", "World"));
+        final AtomicInteger renders = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(
+                "Hello World",
+                data.render(
+                    "Hello ${name}",
+                    template -> {
+                        renders.incrementAndGet();
+                        return notifier.templatize(template, Map.of("name", "World"));
+                    }
+                )
+            );
+        }
+
+        assertEquals(1, renders.get());
+        assertSame(notifier.templatize("Hello ${name}", data), notifier.templatize("Hello ${name}", data));
+    }
+
+    private static Notification notification(String configuration) {
+        final Notification notification = new Notification();
+        notification.setType("test");
+        notification.setConfiguration(configuration);
+        return notification;
+    }
+
+    static class TestConfiguration implements NotifierConfiguration {
+
+        public String url;
+    }
+
+    static class TestNotifier extends AbstractConfigurableNotifier<TestConfiguration> {
+
+        TestNotifier() {
+            super("test", new TestConfiguration());
+        }
+
+        @Override
+        protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    static class OverridingNotifier extends TestNotifier {
+
+        @Override
+        protected <T extends TestConfiguration> T parseConfiguration(String raw, Class<T> type) throws IOException {
+            final T configuration = super.parseConfiguration(raw, type);
+            configuration.url = "overridden";
+            return configuration;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.deferral.DeferralOptions;
+import io.gravitee.notifier.api.exception.NotifierThrottledException;
+import io.gravitee.notifier.api.exception.NotifierTimeoutException;
+import io.gravitee.notifier.api.metrics.InMemoryNotifierMetrics;
+import io.gravitee.notifier.api.metrics.NotifierMetrics;
+import io.gravitee.notifier.api.outbox.Outbox;
+import io.gravitee.notifier.api.outbox.OutboxOptions;
+import io.gravitee.notifier.api.ratelimit.RateLimitOptions;
+import io.gravitee.notifier.api.ratelimit.ThrottleMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class AbstractNotifierTest {
+
+    @Test
+    void shouldSendOnlyHandledNotifications() {
+        final TestNotifier notifier = new TestNotifier("email");
+
+        notifier.send(notification("webhook"), Collections.emptyMap()).join();
+        notifier.send(notification("email"), Collections.emptyMap()).join();
+
+        assertEquals(1, notifier.sent.size());
+    }
+
+    @Test
+    void shouldSendBatchKeepingResultsOrder() {
+        final TestNotifier notifier = new TestNotifier("email");
+        final List<NotificationRequest> requests = Arrays.asList(
+            NotificationRequest.of(notification("email"), Collections.singletonMap("id", 1)),
+            NotificationRequest.of(notification("webhook"), Collections.singletonMap("id", 2)),
+            NotificationRequest.of(notification("email"), Collections.singletonMap("id", 3))
+        );
+
+        final List<CompletableFuture<Void>> results = notifier.sendBatch(requests);
+
+        assertEquals(3, results.size());
+        assertFalse(results.get(0).isCompletedExceptionally());
+        assertTrue(results.get(2).isCompletedExceptionally());
+        assertEquals(1, notifier.batches);
+        assertEquals(Arrays.asList(1, 3), notifier.sent);
+    }
+
+    @Test
+    void shouldRecordSendMetrics() {
+        final InMemoryNotifierMetrics metrics = new InMemoryNotifierMetrics();
+        NotifierMetrics.install(metrics);
+
+        try {
+            final TestNotifier notifier = new TestNotifier("email");
+
+            notifier.send(notification("email"), Collections.singletonMap("id", 1)).join();
+            notifier.send(notification("email"), Collections.singletonMap("id", 3)).exceptionally(throwable -> null).join();
+            notifier.sendBatch(Collections.singletonList(NotificationRequest.of(notification("email"), Collections.singletonMap("id", 2))));
+
+            final InMemoryNotifierMetrics.TypeMetrics email = metrics.of("email");
+            assertEquals(2, email.successes());
+            assertEquals(1, email.failures());
+            assertEquals(0, email.inFlight());
+            assertEquals(3, email.sendLatency().count());
+        } finally {
+            NotifierMetrics.install(null);
+        }
+    }
+
+    @Test
+    void shouldAcknowledgeCompletedNotificationsAndReplayOthers() throws Exception {
+        final Path directory = Files.createTempDirectory("outbox");
+        final OutboxOptions options = new OutboxOptions.Builder().directory(directory).build();
+
+        try (Outbox outbox = Outbox.open(options)) {
+            final TestNotifier notifier = new TestNotifier("email") {
+                @Override
+                protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+                    // Still in progress when the node stops.
+                    return Integer.valueOf(2).equals(parameters.get("id"))
+                        ? new CompletableFuture<>()
+                        : super.doSend(notification, parameters);
+                }
+            };
+            notifier.setOutbox(outbox);
+
+            notifier.send(notification("email"), Collections.singletonMap("id", 1)).join();
+            notifier.send(notification("email"), Collections.singletonMap("id", 2));
+            notifier.send(notification("email"), Collections.singletonMap("id", 3)).exceptionally(throwable -> null).join();
+
+            assertEquals(1, outbox.size());
+        }
+
+        try (Outbox outbox = Outbox.open(options)) {
+            final TestNotifier notifier = new TestNotifier("email") {
+                @Override
+                protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+                    super.doSend(notification, parameters);
+                    // Already sending when the outbox is replayed.
+                    return Integer.valueOf(4).equals(parameters.get("id")) ? new CompletableFuture<>() : completedFuture(null);
+                }
+            };
+            notifier.setOutbox(outbox);
+            notifier.send(notification("email"), Collections.singletonMap("id", 4));
+
+            final List<CompletableFuture<Void>> replayed = notifier.replayOutbox();
+
+            assertEquals(1, replayed.size());
+            assertEquals(List.of(4, 2), notifier.sent);
+        }
+    }
+
+    @Test
+    void shouldDeferNotificationsOutsideOfTheirPeriods() {
+        final TestNotifier notifier = new TestNotifier("email");
+        notifier.setDeferralOptions(new DeferralOptions.Builder().build());
+
+        final int inTwoDays = LocalDate.now(ZoneOffset.UTC).getDayOfWeek().plus(2).getValue();
+        final Notification closed = notification("email");
+        closed.setPeriods(Collections.singletonList(new Period.Builder().zoneId("UTC").days(Collections.singletonList(inTwoDays)).build()));
+
+        final CompletableFuture<Void> deferred = notifier.send(closed, Collections.singletonMap("id", 1));
+        notifier.send(notification("email"), Collections.singletonMap("id", 2)).join();
+
+        assertFalse(deferred.isDone());
+        assertEquals(1, notifier.getDeferrer().parked());
+        assertEquals(Collections.singletonList(2), notifier.sent);
+
+        // Disabling deferral releases the parked notifications.
+        notifier.setDeferralOptions(null);
+
+        deferred.join();
+        assertEquals(Arrays.asList(2, 1), notifier.sent);
+        assertEquals(0, notifier.batches);
+    }
+
+    @Test
+    void shouldRateLimitBatches() {
+        final TestNotifier notifier = new TestNotifier("email");
+        notifier.setRateLimitOptions(new RateLimitOptions.Builder().permitsPerSecond(0.001).burst(2).mode(ThrottleMode.REJECT).build());
+
+        final List<CompletableFuture<Void>> results = notifier.sendBatch(
+            Arrays.asList(
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 1)),
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 2)),
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 4))
+            )
+        );
+
+        results.get(0).join();
+        results.get(1).join();
+        final CompletionException thrown = assertThrows(CompletionException.class, () -> results.get(2).join());
+        assertTrue(thrown.getCause() instanceof NotifierThrottledException);
+        assertEquals(Arrays.asList(1, 2), notifier.sent);
+        assertEquals(1, notifier.batches);
+    }
+
+    @Test
+    void shouldDelayBatchedNotificationsExceedingTheRate() {
+        final TestNotifier notifier = new TestNotifier("email");
+        notifier.setRateLimitOptions(
+            new RateLimitOptions.Builder().permitsPerSecond(20).burst(1).mode(ThrottleMode.DELAY).maxDelay(Duration.ofSeconds(1)).build()
+        );
+
+        final List<CompletableFuture<Void>> results = notifier.sendBatch(
+            Arrays.asList(
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 1)),
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 2)),
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 4))
+            )
+        );
+
+        assertTrue(results.get(0).isDone());
+        assertFalse(results.get(2).isDone());
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        assertEquals(Arrays.asList(1, 2, 4), notifier.sent);
+        assertEquals(2, notifier.batches);
+    }
+
+    @Test
+    void shouldRateLimitReleasedNotifications() {
+        final TestNotifier notifier = new TestNotifier("email");
+        notifier.setDeferralOptions(new DeferralOptions.Builder().build());
+        notifier.setRateLimitOptions(new RateLimitOptions.Builder().permitsPerSecond(0.001).burst(1).mode(ThrottleMode.REJECT).build());
+
+        final int inTwoDays = LocalDate.now(ZoneOffset.UTC).getDayOfWeek().plus(2).getValue();
+        final Notification closed = notification("email");
+        closed.setPeriods(Collections.singletonList(new Period.Builder().zoneId("UTC").days(Collections.singletonList(inTwoDays)).build()));
+
+        final CompletableFuture<Void> first = notifier.send(closed, Collections.singletonMap("id", 1));
+        final CompletableFuture<Void> second = notifier.send(closed, Collections.singletonMap("id", 2));
+
+        notifier.setDeferralOptions(null);
+
+        first.join();
+        final CompletionException thrown = assertThrows(CompletionException.class, second::join);
+        assertTrue(thrown.getCause() instanceof NotifierThrottledException);
+        assertEquals(Collections.singletonList(1), notifier.sent);
+    }
+
+    @Test
+    void shouldPropagateCancellationToThePlugin() {
+        final List<CompletableFuture<Void>> inFlight = Collections.synchronizedList(new ArrayList<>());
+        final AbstractNotifier notifier = new AbstractNotifier("email") {
+            @Override
+            protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+                final CompletableFuture<Void> sent = new CompletableFuture<>();
+                inFlight.add(sent);
+                return sent;
+            }
+        };
+
+        final CompletableFuture<Void> result = notifier.send(notification("email"), Collections.emptyMap());
+        result.cancel(true);
+
+        assertEquals(1, inFlight.size());
+        assertTrue(inFlight.get(0).isCancelled());
+    }
+
+    @Test
+    void shouldTimeoutSendAndAbortThePlugin() {
+        final List<CompletableFuture<Void>> inFlight = Collections.synchronizedList(new ArrayList<>());
+        final AbstractNotifier notifier = new AbstractNotifier("email") {
+            @Override
+            protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+                final CompletableFuture<Void> sent = new CompletableFuture<>();
+                inFlight.add(sent);
+                return sent;
+            }
+        };
+        notifier.setTimeout(Duration.ofMinutes(1));
+
+        // The timeout of the call takes precedence over the timeout of the notifier.
+        final CompletableFuture<Void> result = notifier.send(notification("email"), Collections.emptyMap(), Duration.ofMillis(50));
+
+        final CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof NotifierTimeoutException);
+        final CompletionException aborted = assertThrows(CompletionException.class, inFlight.get(0)::join);
+        assertSame(exception.getCause(), aborted.getCause());
+    }
+
+    @Test
+    void shouldReportFailureThrownByDelayedSend() {
+        final AbstractNotifier notifier = new AbstractNotifier("email") {
+            @Override
+            protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+                throw new IllegalStateException("Unable to send");
+            }
+        };
+        notifier.setRateLimitOptions(
+            new RateLimitOptions.Builder().permitsPerSecond(20).burst(1).mode(ThrottleMode.DELAY).maxDelay(Duration.ofSeconds(1)).build()
+        );
+
+        assertThrows(IllegalStateException.class, () -> notifier.send(notification("email"), Collections.emptyMap()));
+
+        // Delayed by the rate limiter, the send now runs on the timer.
+        final CompletableFuture<Void> delayed = notifier.send(notification("email"), Collections.emptyMap());
+        final CompletionException exception = assertThrows(CompletionException.class, () -> delayed.orTimeout(5, TimeUnit.SECONDS).join());
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    static Notification notification(String type) {
+        final Notification notification = new Notification();
+        notification.setType(type);
+        return notification;
+    }
+
+    static class TestNotifier extends AbstractNotifier {
+
+        final List<Object> sent = Collections.synchronizedList(new ArrayList<>());
+
+        int batches;
+
+        TestNotifier(String type) {
+            super(type);
+        }
+
+        @Override
+        protected CompletableFuture<Void> doSend(Notification notification, Map<String, Object> parameters) {
+            final Object id = parameters.get("id");
+            sent.add(id);
+
+            if (Integer.valueOf(3).equals(id)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Unable to send"));
+            }
+            return completedFuture(null);
+        }
+
+        @Override
+        protected List<CompletableFuture<Void>> doSendBatch(List<NotificationRequest> requests) {
+            batches++;
+            return super.doSendBatch(requests);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class NotificationTest {
+
+    @Test
+    void shouldKeepSerializedForm() {
+        final ObjectStreamClass descriptor = ObjectStreamClass.lookup(Notification.class);
+
+        assertEquals(-7802888934356556884L, descriptor.getSerialVersionUID());
+        assertEquals(String.class, descriptor.getField("configuration").getType());
+        assertEquals(722749438429011670L, ObjectStreamClass.lookup(Period.class).getSerialVersionUID());
+    }
+
+    @Test
+    void shouldSerializeConfigurationAsString() throws Exception {
+        final Notification notification = new Notification();
+        notification.setType("webhook");
+        notification.setConfiguration("{\"url\":\"http://localhost\"}");
+        notification.setPeriods(List.of(new Period.Builder().days(List.of(1, 2)).beginHour(0).endHour(3600).build()));
+
+        final Notification copy = roundTrip(notification);
+
+        assertEquals("webhook", copy.getType());
+        assertEquals("{\"url\":\"http://localhost\"}", copy.getConfiguration());
+        assertEquals(3600, copy.getPeriods().get(0).getEndHour());
+        assertEquals(notification.schedule(), copy.schedule());
+    }
+
+    @Test
+    void shouldSerializeEmptyNotification() throws Exception {
+        final Notification copy = roundTrip(new Notification());
+
+        assertNull(copy.getConfiguration());
+        assertNull(copy.getPeriods());
+    }
+
+    @Test
+    void shouldComputeScheduleAgainWhenPeriodsAreModifiedInPlace() {
+        final long monday = Instant.parse("2026-10-19T12:00:00Z").toEpochMilli();
+        final Period period = new Period.Builder().days(List.of(1)).zoneId("UTC").beginHour(0).endHour(86399).build();
+        final Notification notification = new Notification();
+        notification.setPeriods(new ArrayList<>(List.of(period)));
+
+        assertTrue(notification.canNotify(monday));
+        assertSame(notification.schedule(), notification.schedule());
+
+        period.setDays(List.of(2));
+        assertFalse(notification.canNotify(monday));
+
+        notification.getPeriods().add(new Period.Builder().days(List.of(1)).zoneId("UTC").beginHour(43200).endHour(86399).build());
+        assertTrue(notification.canNotify(monday));
+
+        notification.getPeriods().remove(1);
+        assertFalse(notification.canNotify(monday));
+
+        notification.getPeriods().add(new Period.Builder().days(List.of(1)).zoneId("UTC").beginHour(0).endHour(86399).build());
+        assertTrue(notification.canNotify(monday));
+
+        notification.getPeriods().set(1, new Period.Builder().days(List.of(3)).zoneId("UTC").beginHour(0).endHour(86399).build());
+        assertFalse(notification.canNotify(monday));
+
+        notification.getPeriods().clear();
+        assertTrue(notification.schedule().isAlways());
+    }
+
+    @Test
+    void shouldKeepScheduleOfInternedPeriods() throws Exception {
+        final long monday = Instant.parse("2026-10-19T12:00:00Z").toEpochMilli();
+        final Notification notification = new Notification();
+        notification.setPeriods(Periods.intern(List.of(new Period.Builder().days(List.of(1)).zoneId("UTC").build())));
+
+        final Schedule schedule = notification.schedule();
+        // Modifying any other period does not make the interned ones checked again.
+        new Period.Builder().build().setBeginHour(10);
+
+        assertSame(schedule, notification.schedule());
+        assertTrue(notification.canNotify(monday));
+        assertTrue(roundTrip(notification).canNotify(monday));
+    }
+
+    private static Notification roundTrip(Notification notification) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(notification);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (Notification) in.readObject();
+        }
+    }
+}
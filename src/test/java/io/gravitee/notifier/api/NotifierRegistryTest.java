@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static io.gravitee.notifier.api.AbstractNotifierTest.notification;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.AbstractNotifierTest.TestNotifier;
+import io.gravitee.notifier.api.exception.UnknownNotifierException;
+import io.gravitee.notifier.api.fanout.FanOutOptions;
+import io.gravitee.notifier.api.fanout.FanOutResult;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class NotifierRegistryTest {
+
+    @Test
+    void shouldDispatchToNotifierOfType() {
+        final NotifierRegistry registry = new NotifierRegistry();
+        final TestNotifier email = new TestNotifier("email");
+        final TestNotifier webhook = new TestNotifier("webhook");
+        registry.register(email);
+        registry.register(webhook);
+
+        registry.dispatch(notification("webhook"), Collections.singletonMap("id", 1)).join();
+
+        assertTrue(email.sent.isEmpty());
+        assertEquals(Collections.singletonList(1), webhook.sent);
+    }
+
+    @Test
+    void shouldReportUnroutableNotification() {
+        final NotifierRegistry registry = new NotifierRegistry();
+        final TestNotifier email = new TestNotifier("email");
+        registry.register(email);
+        registry.unregister("email", email);
+
+        final CompletableFuture<Void> result = registry.dispatch(notification("email"), Collections.emptyMap());
+
+        final CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof UnknownNotifierException);
+        assertEquals(1, registry.unroutable());
+    }
+
+    @Test
+    void shouldDispatchBatchGroupedByType() {
+        final NotifierRegistry registry = new NotifierRegistry();
+        final TestNotifier email = new TestNotifier("email");
+        registry.register(email);
+
+        final List<CompletableFuture<Void>> results = registry.dispatchBatch(
+            Arrays.asList(
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 1)),
+                NotificationRequest.of(notification("sms"), Collections.singletonMap("id", 2)),
+                NotificationRequest.of(notification("email"), Collections.singletonMap("id", 4))
+            )
+        );
+
+        assertEquals(3, results.size());
+        assertFalse(results.get(0).isCompletedExceptionally());
+        assertTrue(results.get(1).isCompletedExceptionally());
+        assertFalse(results.get(2).isCompletedExceptionally());
+        assertEquals(1, email.batches);
+        assertEquals(Arrays.asList(1, 4), email.sent);
+    }
+
+    @Test
+    void shouldFanOutToEligibleNotificationsByType() {
+        final NotifierRegistry registry = new NotifierRegistry();
+        final TestNotifier email = new TestNotifier("email");
+        final TestNotifier webhook = new TestNotifier("webhook");
+        registry.register(email);
+        registry.register(webhook);
+
+        final Notification closed = notification("email");
+        closed.setPeriods(Collections.singletonList(new Period.Builder().days(Collections.emptyList()).build()));
+
+        final List<Notification> notifications = Arrays.asList(
+            notification("email"),
+            notification("webhook"),
+            closed,
+            notification("sms"),
+            notification("email"),
+            notification("email")
+        );
+
+        final FanOutResult result = registry.fanOut(
+            notifications,
+            Collections.singletonMap("id", 1),
+            System.currentTimeMillis(),
+            new FanOutOptions.Builder().batchSize(2).executor(Runnable::run).build()
+        );
+        result.completion().join();
+
+        assertEquals(6, result.size());
+        assertEquals(5, result.eligible());
+        assertFalse(result.isEligible(2));
+        assertTrue(result.getResult(3).isCompletedExceptionally());
+        assertEquals(2, email.batches);
+        assertEquals(Arrays.asList(1, 1, 1), email.sent);
+        assertEquals(Collections.singletonList(1), webhook.sent);
+    }
+}
@@ -148,4 +148,65 @@ class PeriodTest {
 
         assertFalse(period.isIncluded(now));
     }
+
+    @Test
+    void isIncluded_timestampAcrossDaylightSavingTime() {
+        final Period period = new Period.Builder()
+            .beginHour(LocalTime.of(9, 0, 0).toSecondOfDay())
+            .endHour(LocalTime.of(18, 0, 0).toSecondOfDay())
+            .zoneId("Europe/Paris")
+            .build();
+
+        // Winter time (UTC+1).
+        assertTrue(period.isIncluded(Instant.parse("2026-03-27T08:00:00Z").toEpochMilli()));
+        assertFalse(period.isIncluded(Instant.parse("2026-03-27T07:59:59Z").toEpochMilli()));
+        assertTrue(period.isIncluded(Instant.parse("2026-03-27T17:00:00Z").toEpochMilli()));
+
+        // Summer time (UTC+2).
+        assertTrue(period.isIncluded(Instant.parse("2026-03-30T07:00:00Z").toEpochMilli()));
+        assertFalse(period.isIncluded(Instant.parse("2026-03-30T06:59:59Z").toEpochMilli()));
+        assertFalse(period.isIncluded(Instant.parse("2026-03-30T16:00:01Z").toEpochMilli()));
+
+        // Back to winter time.
+        assertTrue(period.isIncluded(Instant.parse("2026-10-26T17:00:00Z").toEpochMilli()));
+        assertFalse(period.isIncluded(Instant.parse("2026-10-26T17:00:01Z").toEpochMilli()));
+    }
+
+    @Test
+    void isIncluded_timestampDays() {
+        final Period period = new Period.Builder()
+            .days(Arrays.asList(DayOfWeek.SATURDAY.getValue(), DayOfWeek.SUNDAY.getValue()))
+            .zoneId("UTC")
+            .build();
+
+        // 2026-10-17 is a saturday.
+        assertTrue(period.isIncluded(Instant.parse("2026-10-17T00:00:00Z").toEpochMilli()));
+        assertTrue(period.isIncluded(Instant.parse("2026-10-18T23:59:59Z").toEpochMilli()));
+        assertFalse(period.isIncluded(Instant.parse("2026-10-19T00:00:00Z").toEpochMilli()));
+        assertFalse(period.isIncluded(Instant.parse("2026-10-16T23:59:59Z").toEpochMilli()));
+    }
+
+    @Test
+    void isIncluded_timestampBeforeEpoch() {
+        final Period period = new Period.Builder()
+            .days(Collections.singletonList(DayOfWeek.WEDNESDAY.getValue()))
+            .beginHour(LocalTime.of(12, 0, 0).toSecondOfDay())
+            .zoneId("UTC")
+            .build();
+
+        // 1969-12-31 is a wednesday.
+        assertTrue(period.isIncluded(Instant.parse("1969-12-31T12:00:00Z").toEpochMilli()));
+        assertFalse(period.isIncluded(Instant.parse("1969-12-31T11:59:59Z").toEpochMilli()));
+    }
+
+    @Test
+    void isIncluded_recompiledWhenModified() {
+        final Period period = new Period.Builder().zoneId("UTC").build();
+        final long timestamp = Instant.parse("2026-10-17T10:00:00Z").toEpochMilli();
+
+        assertTrue(period.isIncluded(timestamp));
+
+        period.setEndHour(LocalTime.of(9, 0, 0).toSecondOfDay());
+        assertFalse(period.isIncluded(timestamp));
+    }
 }
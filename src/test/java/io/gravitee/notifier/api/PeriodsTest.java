@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.gravitee.notifier.api.jackson.PeriodsDeserializer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class PeriodsTest {
+
+    private static final String JSON =
+        "{\"type\":\"email\",\"periods\":[{\"days\":[5,4,3,2,1],\"zoneId\":\"Europe/Paris\",\"beginHour\":32400,\"endHour\":64800}]}";
+
+    @Test
+    void shouldInternEquivalentPeriods() {
+        final List<Period> periods = Periods.intern(
+            Collections.singletonList(new Period.Builder().days(Arrays.asList(3, 1, 1)).zoneId("UTC").build())
+        );
+        final List<Period> equivalent = Periods.intern(
+            Collections.singletonList(new Period.Builder().days(Arrays.asList(1, 3)).zoneId("UTC").build())
+        );
+
+        assertSame(periods, equivalent);
+        assertEquals(Arrays.asList(1, 3), periods.get(0).getDays());
+        assertThrows(UnsupportedOperationException.class, () -> periods.get(0).setZoneId("Europe/Paris"));
+        assertThrows(UnsupportedOperationException.class, () -> periods.add(periods.get(0)));
+        assertNotSame(periods, Periods.intern(Collections.singletonList(new Period.Builder().zoneId("UTC").build())));
+        assertNull(Periods.intern(null));
+    }
+
+    @Test
+    void shouldInternDeserializedPeriodsOnlyWhenEnabled() throws Exception {
+        final ObjectReader reader = new ObjectMapper().readerFor(Notification.class);
+        final ObjectReader interning = reader.withAttribute(PeriodsDeserializer.INTERN_ATTRIBUTE, true);
+
+        final Notification first = interning.readValue(JSON);
+        final Notification second = interning.readValue(JSON);
+        final Notification own = reader.readValue(JSON);
+
+        assertSame(first.getPeriods(), second.getPeriods());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), first.getPeriods().get(0).getDays());
+        assertNotSame(first.getPeriods(), own.getPeriods());
+        assertEquals(Arrays.asList(5, 4, 3, 2, 1), own.getPeriods().get(0).getDays());
+
+        // All of them share the same schedule, interned or not.
+        assertSame(first.schedule(), own.schedule());
+    }
+}
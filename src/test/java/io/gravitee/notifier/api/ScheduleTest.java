@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class ScheduleTest {
+
+    private static final List<Integer> WEEK_DAYS = Arrays.asList(1, 2, 3, 4, 5);
+
+    @Test
+    void shouldAlwaysBeEligibleWithoutPeriods() {
+        final Notification notification = new Notification();
+        final long now = System.currentTimeMillis();
+
+        assertTrue(notification.canNotify(now));
+        assertEquals(now, notification.nextNotificationTime(now));
+        assertTrue(notification.schedule().isAlways());
+    }
+
+    @Test
+    void shouldNeverBeEligibleWithEmptyPeriods() {
+        final Schedule schedule = Schedule.of(Collections.singletonList(period(Collections.emptyList(), "UTC", 0, 86399)));
+        final long now = System.currentTimeMillis();
+
+        assertFalse(schedule.isEligible(now));
+        assertEquals(Schedule.NEVER, schedule.nextEligibleTime(now));
+    }
+
+    @Test
+    void shouldMatchPeriodsEvaluation() {
+        final List<Period> periods = Arrays.asList(
+            period(WEEK_DAYS, "Europe/Paris", hour(9), hour(12)),
+            period(WEEK_DAYS, "Europe/Paris", hour(11), hour(18)),
+            period(Collections.singletonList(6), "America/Chicago", hour(22), hour(23)),
+            period(null, "Asia/Kolkata", hour(2), hour(3)),
+            period(Arrays.asList(7, 1), "UTC", hour(0), 86399)
+        );
+        final Schedule schedule = Schedule.of(periods);
+        final Random random = new Random(42);
+        final long from = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+        for (int i = 0; i < 100_000; i++) {
+            final long timestamp = from + (long) (random.nextDouble() * 365 * 86_400_000L);
+            final boolean expected = periods.stream().anyMatch(period -> period.isIncluded(timestamp));
+            assertEquals(expected, schedule.isEligible(timestamp), "Unexpected result for " + Instant.ofEpochMilli(timestamp));
+        }
+    }
+
+    @Test
+    void shouldReturnNextOpeningTime() {
+        final Schedule schedule = Schedule.of(Collections.singletonList(period(WEEK_DAYS, "Europe/Paris", hour(9), hour(18))));
+
+        // Friday evening, next opening is monday morning.
+        assertEquals(
+            Instant.parse("2026-10-19T07:00:00Z").toEpochMilli(),
+            schedule.nextEligibleTime(Instant.parse("2026-10-16T18:00:00Z").toEpochMilli())
+        );
+
+        // Monday early morning, before the end of daylight saving time.
+        assertEquals(
+            Instant.parse("2026-10-19T07:00:00Z").toEpochMilli(),
+            schedule.nextEligibleTime(Instant.parse("2026-10-19T01:00:00Z").toEpochMilli())
+        );
+
+        // Week-end where daylight saving time ends, next opening is monday at 9:00 winter time.
+        assertEquals(
+            Instant.parse("2026-10-26T08:00:00Z").toEpochMilli(),
+            schedule.nextEligibleTime(Instant.parse("2026-10-24T12:00:00Z").toEpochMilli())
+        );
+
+        // Already open.
+        final long open = Instant.parse("2026-10-19T10:00:00Z").toEpochMilli();
+        assertEquals(open, schedule.nextEligibleTime(open));
+    }
+
+    @Test
+    void shouldReturnEarliestOpeningTimeAcrossZones() {
+        final Schedule schedule = Schedule.of(
+            Arrays.asList(
+                period(Collections.singletonList(DayOfWeek.MONDAY.getValue()), "Europe/Paris", hour(9), hour(10)),
+                period(Collections.singletonList(DayOfWeek.SUNDAY.getValue()), "America/New_York", hour(22), hour(23))
+            )
+        );
+
+        // Sunday 22:00 in New York is monday 04:00 in Paris.
+        assertEquals(
+            Instant.parse("2026-10-19T02:00:00Z").toEpochMilli(),
+            schedule.nextEligibleTime(Instant.parse("2026-10-17T12:00:00Z").toEpochMilli())
+        );
+    }
+
+    @Test
+    void shouldSkipWindowInDaylightSavingTimeGap() {
+        // On 2026-03-29, 02:00 does not exist in Paris.
+        final Schedule schedule = Schedule.of(
+            Collections.singletonList(
+                period(Collections.singletonList(DayOfWeek.SUNDAY.getValue()), "Europe/Paris", hour(2), hour(2) + 1800)
+            )
+        );
+
+        assertEquals(
+            Instant.parse("2026-04-05T00:00:00Z").toEpochMilli(),
+            schedule.nextEligibleTime(Instant.parse("2026-03-28T12:00:00Z").toEpochMilli())
+        );
+    }
+
+    @Test
+    void shouldFindWindowInRepeatedHourOfDaylightSavingTimeOverlap() {
+        // On 2024-10-27, 02:00 to 02:59:59 happens twice in Paris, first in CEST then in CET.
+        final Schedule schedule = Schedule.of(
+            Collections.singletonList(
+                period(Collections.singletonList(DayOfWeek.SUNDAY.getValue()), "Europe/Paris", hour(2) + 1800, hour(3) - 1)
+            )
+        );
+
+        // 02:10 CET, during the repeated hour: the window opens at 02:30 CET.
+        assertEquals(
+            Instant.parse("2024-10-27T01:30:00Z").toEpochMilli(),
+            schedule.nextEligibleTime(Instant.parse("2024-10-27T01:10:00Z").toEpochMilli())
+        );
+        // 02:10 CEST, during the first occurrence: the window opens at 02:30 CEST.
+        assertEquals(
+            Instant.parse("2024-10-27T00:30:00Z").toEpochMilli(),
+            schedule.nextEligibleTime(Instant.parse("2024-10-27T00:10:00Z").toEpochMilli())
+        );
+        // 02:40 CEST, in the window.
+        final long open = Instant.parse("2024-10-27T00:40:00Z").toEpochMilli();
+        assertEquals(open, schedule.nextEligibleTime(open));
+    }
+
+    @Test
+    void shouldComputeScheduleAgainWhenPeriodsAreReplaced() {
+        final Notification notification = new Notification();
+        final long timestamp = Instant.parse("2026-10-17T10:00:00Z").toEpochMilli();
+
+        notification.setPeriods(Collections.singletonList(period(null, "UTC", hour(0), hour(9))));
+        assertFalse(notification.canNotify(timestamp));
+
+        notification.setPeriods(Collections.singletonList(period(null, "UTC", hour(9), hour(11))));
+        assertTrue(notification.canNotify(timestamp));
+    }
+
+    @Test
+    void shouldKeepCachedEligibilityAcrossBoundsAndTransitions() {
+        final List<Period> periods = Arrays.asList(
+            period(WEEK_DAYS, "Europe/Paris", hour(9), hour(18) - 1),
+            period(Collections.singletonList(7), "America/New_York", hour(1), hour(3)),
+            period(null, "Asia/Tokyo", hour(23), 86399)
+        );
+        final Schedule schedule = Schedule.of(periods);
+        final long from = Instant.parse("2026-03-01T00:00:00Z").toEpochMilli();
+        final long to = Instant.parse("2026-04-05T00:00:00Z").toEpochMilli();
+
+        // Move forward in time, as when checking notifications against the current time, crossing both DST transitions.
+        for (long timestamp = from; timestamp < to; timestamp += 61_999) {
+            final long t = timestamp;
+            final boolean expected = periods.stream().anyMatch(period -> period.isIncluded(t));
+            assertEquals(expected, schedule.isEligible(t), "Unexpected result for " + Instant.ofEpochMilli(t));
+        }
+
+        // Exact bounds of the Paris period on a monday, the end of a period is inclusive.
+        final long open = Instant.parse("2026-03-30T07:00:00Z").toEpochMilli();
+        final long close = Instant.parse("2026-03-30T15:59:59Z").toEpochMilli();
+        assertFalse(schedule.isEligible(open - 1));
+        assertTrue(schedule.isEligible(open));
+        assertTrue(schedule.isEligible(close));
+        assertFalse(schedule.isEligible(close + 1));
+    }
+
+    @Test
+    void shouldShareScheduleOfEquivalentPeriods() {
+        final Schedule schedule = Schedule.of(
+            Arrays.asList(period(WEEK_DAYS, "Europe/Paris", hour(9), hour(18)), period(null, "UTC", hour(0), hour(1)))
+        );
+
+        final Schedule equivalent = Schedule.of(
+            Arrays.asList(
+                period(null, "UTC", hour(0), hour(1)),
+                period(Arrays.asList(5, 4, 3, 2, 1, 1), "Europe/Paris", hour(9), hour(18)),
+                period(null, "UTC", hour(0), hour(1))
+            )
+        );
+
+        assertSame(schedule, equivalent);
+        assertNotSame(schedule, Schedule.of(Collections.singletonList(period(null, "UTC", hour(0), hour(1)))));
+    }
+
+    private static int hour(int hour) {
+        return LocalTime.of(hour, 0).toSecondOfDay();
+    }
+
+    private static Period period(List<Integer> days, String zoneId, int beginHour, int endHour) {
+        return new Period.Builder().days(days).zoneId(zoneId).beginHour(beginHour).endHour(endHour).build();
+    }
+}
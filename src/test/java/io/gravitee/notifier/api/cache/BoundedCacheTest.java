@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class BoundedCacheTest {
+
+    @Test
+    void shouldLoadOnlyOnce() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10);
+        final AtomicInteger loads = new AtomicInteger();
+
+        final String loaded = cache.get(
+            "a",
+            key -> {
+                loads.incrementAndGet();
+                return key.toUpperCase();
+            }
+        );
+
+        assertEquals("A", loaded);
+        assertEquals("A", cache.get("a", key -> "unexpected"));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void shouldNotExceedCapacity() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(5);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(5, cache.size());
+        assertEquals(95, cache.evictions());
+    }
+
+    @Test
+    void shouldGiveSecondChanceToReferencedEntries() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(3);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+
+        // Reference the oldest entry so the next one is evicted instead.
+        assertEquals(1, cache.getIfPresent(1));
+        cache.put(4, 4);
+
+        assertEquals(1, cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+        assertEquals(3, cache.getIfPresent(3));
+        assertEquals(4, cache.getIfPresent(4));
+    }
+
+    @Test
+    void shouldInvalidate() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(3);
+        cache.put("a", "a");
+        cache.invalidate("a");
+
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotGrowWhenInvalidatingAndCachingAgain() {
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(3);
+        cache.put("b", 0);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("a", i);
+            cache.invalidate("a");
+        }
+        cache.put("a", 1000);
+
+        assertTrue(cache.clockSize() <= 2 * (3 + 1));
+        assertEquals(1000, cache.getIfPresent("a"));
+        assertEquals(0, cache.getIfPresent("b"));
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    void shouldEvictEntriesCachedAgainOnlyOnce() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(2);
+        cache.put(1, 1);
+        cache.invalidate(1);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+
+        assertNull(cache.getIfPresent(1));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void shouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+    }
+}
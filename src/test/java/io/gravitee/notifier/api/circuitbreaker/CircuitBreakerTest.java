@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.exception.CircuitBreakerOpenException;
+import io.gravitee.notifier.api.metrics.InMemoryNotifierMetrics;
+import io.gravitee.notifier.api.metrics.NotifierMetrics;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class CircuitBreakerTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void shouldOpenWhenFailureRateIsReachedAndFailFast() {
+        final InMemoryNotifierMetrics metrics = new InMemoryNotifierMetrics();
+        NotifierMetrics.install(metrics);
+
+        try {
+            final CircuitBreaker breaker = new CircuitBreaker("webhook", options().build());
+            final Notification notification = notification(null);
+
+            breaker.execute(notification, this::success).join();
+            breaker.execute(notification, this::success).join();
+            breaker.execute(notification, this::failure);
+            assertEquals(CircuitState.CLOSED, breaker.circuit().state());
+            breaker.execute(notification, this::failure);
+
+            assertEquals(CircuitState.OPEN, breaker.circuit().state());
+
+            final CompletionException thrown = assertThrows(CompletionException.class, () -> breaker.execute(notification, this::success).join());
+            assertTrue(thrown.getCause() instanceof CircuitBreakerOpenException);
+            assertEquals(4, attempts.get());
+            assertEquals(1, breaker.circuit().rejected());
+            assertEquals(1, metrics.of("webhook").circuitOpenings());
+            assertEquals(1, metrics.of("webhook").circuitsNotClosed());
+        } finally {
+            NotifierMetrics.install(null);
+        }
+    }
+
+    @Test
+    void shouldCloseWhenProbesSucceed() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker("webhook", options().openDuration(Duration.ofMillis(50)).build());
+        final Notification notification = notification(null);
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(notification, this::failure);
+        }
+        assertEquals(CircuitState.OPEN, breaker.circuit().state());
+
+        Thread.sleep(60);
+        assertEquals(CircuitState.HALF_OPEN, breaker.circuit().state());
+
+        // Only two probes are let through while half open.
+        final CompletableFuture<Void> first = new CompletableFuture<>();
+        final CompletableFuture<Void> second = new CompletableFuture<>();
+        final CompletableFuture<Void> firstProbe = breaker.execute(notification, () -> first);
+        final CompletableFuture<Void> secondProbe = breaker.execute(notification, () -> second);
+        assertTrue(breaker.execute(notification, this::success).isCompletedExceptionally());
+
+        first.complete(null);
+        second.complete(null);
+        firstProbe.join();
+        secondProbe.join();
+
+        assertEquals(CircuitState.CLOSED, breaker.circuit().state());
+    }
+
+    @Test
+    void shouldOpenAgainWhenProbesFail() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker("webhook", options().openDuration(Duration.ofMillis(50)).build());
+        final Notification notification = notification(null);
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(notification, this::failure);
+        }
+
+        Thread.sleep(60);
+        breaker.execute(notification, this::failure);
+        breaker.execute(notification, this::failure);
+
+        assertEquals(CircuitState.OPEN, breaker.circuit().state());
+    }
+
+    @Test
+    void shouldOpenAgainWhenProbesDoNotComplete() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            "webhook",
+            options().openDuration(Duration.ofMillis(50)).maxHalfOpenDuration(Duration.ofMillis(50)).build()
+        );
+        final Notification notification = notification(null);
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(notification, this::failure);
+        }
+
+        Thread.sleep(60);
+        // Probes which never complete.
+        breaker.execute(notification, CompletableFuture::new);
+        breaker.execute(notification, CompletableFuture::new);
+        assertTrue(breaker.execute(notification, this::success).isCompletedExceptionally());
+
+        Thread.sleep(60);
+        assertTrue(breaker.execute(notification, this::success).isCompletedExceptionally());
+        assertEquals(CircuitState.OPEN, breaker.circuit().state());
+
+        Thread.sleep(60);
+        breaker.execute(notification, this::success).join();
+        breaker.execute(notification, this::success).join();
+        assertEquals(CircuitState.CLOSED, breaker.circuit().state());
+    }
+
+    @Test
+    void shouldNotRecordCancelledSends() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker("webhook", options().openDuration(Duration.ofMillis(50)).build());
+        final Notification notification = notification(null);
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(notification, this::failure);
+        }
+
+        Thread.sleep(60);
+        breaker.execute(notification, CompletableFuture::new).cancel(true);
+        breaker.execute(notification, CompletableFuture::new).cancel(true);
+
+        // The cancelled probes gave their permits back.
+        breaker.execute(notification, this::success).join();
+        breaker.execute(notification, this::success).join();
+        assertEquals(CircuitState.CLOSED, breaker.circuit().state());
+    }
+
+    @Test
+    void shouldOpenOnSlowCalls() {
+        final CircuitBreaker breaker = new CircuitBreaker("webhook", options().slowCallDuration(Duration.ZERO).build());
+        final Notification notification = notification(null);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(notification, this::success).join();
+        }
+
+        assertEquals(CircuitState.OPEN, breaker.circuit().state());
+    }
+
+    @Test
+    void shouldIsolateTargets() {
+        final CircuitBreaker breaker = new CircuitBreaker("webhook", options().targetKey(Notification::getConfiguration).build());
+
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(notification("\"down\""), this::failure);
+        }
+
+        assertEquals(CircuitState.OPEN, breaker.circuit("\"down\"").state());
+        assertEquals(CircuitState.CLOSED, breaker.circuit().state());
+        breaker.execute(notification("\"up\""), this::success).join();
+    }
+
+    private CompletableFuture<Void> success() {
+        attempts.incrementAndGet();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<Void> failure() {
+        attempts.incrementAndGet();
+        return CompletableFuture.failedFuture(new IllegalStateException("Endpoint unavailable"));
+    }
+
+    private static CircuitBreakerOptions.Builder options() {
+        return new CircuitBreakerOptions.Builder().windowSize(4).minimumCalls(4).halfOpenCalls(2).failureRateThreshold(0.5);
+    }
+
+    private static Notification notification(String configuration) {
+        final Notification notification = new Notification();
+        notification.setType("webhook");
+        notification.setConfiguration(configuration);
+        return notification;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.Period;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class NotificationCodecTest {
+
+    @Test
+    void shouldRoundTripNotification() {
+        final Notification notification = new Notification();
+        notification.setType("webhook");
+        notification.setConfiguration("{\"url\":\"https://example.com/hé\",\"headers\":[1,2]}");
+        notification.setPeriods(
+            Arrays.asList(
+                new Period.Builder().days(Arrays.asList(5, 1, 2, 2, 9)).zoneId("Europe/Paris").beginHour(32400).endHour(64800).build(),
+                new Period.Builder().zoneId("America/Indiana/Knox").build()
+            )
+        );
+
+        final Notification decoded = NotificationCodec.decode(NotificationCodec.encode(notification));
+
+        assertEquals("webhook", decoded.getType());
+        assertFalse(decoded.rawConfiguration().isDecoded());
+        assertEquals(notification.getConfiguration(), decoded.getConfiguration());
+        assertEquals(2, decoded.getPeriods().size());
+
+        final Period first = decoded.getPeriods().get(0);
+        assertEquals(Arrays.asList(1, 2, 5), first.getDays());
+        assertEquals("Europe/Paris", first.getZoneId());
+        assertEquals(32400, first.getBeginHour());
+        assertEquals(64800, first.getEndHour());
+
+        final Period second = decoded.getPeriods().get(1);
+        assertNull(second.getDays());
+        assertEquals("America/Indiana/Knox", second.getZoneId());
+        assertEquals(86399, second.getEndHour());
+
+        final long timestamp = 1_700_000_000_000L;
+        for (long t = timestamp; t < timestamp + 7 * 86_400_000L; t += 3_600_000L) {
+            assertEquals(notification.canNotify(t), decoded.canNotify(t));
+        }
+    }
+
+    @Test
+    void shouldRoundTripEmptyNotification() {
+        final Notification decoded = NotificationCodec.decode(NotificationCodec.encode(new Notification()));
+
+        assertNull(decoded.getType());
+        assertNull(decoded.getPeriods());
+        assertNull(decoded.getConfiguration());
+    }
+
+    @Test
+    void shouldRoundTripPeriodWithoutDays() {
+        final Period period = new Period.Builder().days(Collections.emptyList()).zoneId("UTC").build();
+
+        final Period decoded = NotificationCodec.decodePeriod(NotificationCodec.encode(period));
+
+        assertEquals(Collections.emptyList(), decoded.getDays());
+        // Zones of the table are shared by all decoded periods.
+        assertSame(decoded.getZoneId(), NotificationCodec.decodePeriod(NotificationCodec.encode(period)).getZoneId());
+    }
+
+    @Test
+    void shouldRoundTripLargeConfigurationAndManyPeriods() {
+        final List<Period> periods = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            periods.add(
+                new Period.Builder().days(Arrays.asList(1 + i % 7)).zoneId("Zone/Unknown-" + i).beginHour(i).endHour(86000 + i).build()
+            );
+        }
+
+        final Notification notification = new Notification();
+        notification.setType("email");
+        notification.setPeriods(periods);
+        notification.setConfiguration("{\"body\":\"" + "x".repeat(100_000) + "\"}");
+
+        final Notification decoded = NotificationCodec.decode(NotificationCodec.encode(notification));
+
+        assertEquals(200, decoded.getPeriods().size());
+        assertEquals("Zone/Unknown-199", decoded.getPeriods().get(199).getZoneId());
+        assertEquals(86199, decoded.getPeriods().get(199).getEndHour());
+        assertEquals(notification.getConfiguration(), decoded.getConfiguration());
+    }
+
+    @Test
+    void shouldKeepZoneTableFrozen() {
+        // Ids are part of the format, zones missing from the table must be encoded by name.
+        assertEquals(0, ZoneTable.id("UTC"));
+        assertEquals(5, ZoneTable.id("Europe/Paris"));
+        assertEquals(65, ZoneTable.id("America/Argentina/Buenos_Aires"));
+        assertThrows(IllegalArgumentException.class, () -> ZoneTable.zone(66));
+    }
+
+    @Test
+    void shouldEncodeZonesMissingFromTheTableByName() {
+        final Period period = new Period.Builder().zoneId("Asia/Kathmandu").build();
+        final byte[] encoded = NotificationCodec.encode(period);
+
+        assertEquals(NotificationCodec.VERSION, encoded[0]);
+        assertEquals("Asia/Kathmandu", NotificationCodec.decodePeriod(encoded).getZoneId());
+    }
+
+    @Test
+    void shouldSkipUnknownFields() {
+        final Encoder encoder = new Encoder(8);
+        encoder.writeByte(NotificationCodec.VERSION);
+        encoder.writeStringField(1, "email");
+        // Fields added by a later version of the format.
+        encoder.writeVarintField(15, 42);
+        encoder.writeStringField(16, "unknown");
+        final int mark = encoder.beginMessage(2);
+        encoder.writeVarintField(1, 0b11);
+        encoder.writeVarintField(9, 7);
+        encoder.writeVarintField(2, 0);
+        encoder.endMessage(mark);
+
+        final Notification decoded = NotificationCodec.decode(encoder.toByteArray());
+
+        assertEquals("email", decoded.getType());
+        assertEquals(Arrays.asList(1, 2), decoded.getPeriods().get(0).getDays());
+        assertEquals("UTC", decoded.getPeriods().get(0).getZoneId());
+    }
+
+    @Test
+    void shouldRejectMalformedInput() {
+        final byte[] encoded = NotificationCodec.encode(notification());
+
+        assertThrows(IllegalArgumentException.class, () -> NotificationCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+        assertThrows(IllegalArgumentException.class, () -> NotificationCodec.decode(new byte[] { (byte) (NotificationCodec.VERSION + 1) }));
+        assertThrows(IllegalArgumentException.class, () -> NotificationCodec.decode(new byte[0]));
+    }
+
+    @Test
+    void shouldBeSmallerThanJavaSerialization() throws IOException {
+        final Notification notification = notification();
+
+        final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(notification);
+        }
+
+        assertTrue(NotificationCodec.encode(notification).length * 4 < serialized.size());
+    }
+
+    private static Notification notification() {
+        final Notification notification = new Notification();
+        notification.setType("email");
+        notification.setConfiguration("{\"to\":\"ops@example.com\"}");
+        notification.setPeriods(
+            Collections.singletonList(new Period.Builder().days(Arrays.asList(1, 2, 3, 4, 5)).zoneId("Europe/Paris").build())
+        );
+        return notification;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.deferral;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.NotificationRequest;
+import io.gravitee.notifier.api.Period;
+import io.gravitee.notifier.api.Schedule;
+import io.gravitee.notifier.api.exception.NotifierRejectedException;
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class DeferrerTest {
+
+    /**
+     * 2024-01-01T09:59:59.700Z, 300ms before the period opening at 10:00 UTC.
+     */
+    private static final long NOW = Instant.parse("2024-01-01T09:59:59.700Z").toEpochMilli();
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    private final long start = System.currentTimeMillis();
+
+    /**
+     * Starts at {@link #NOW} and goes forward in real time, so that parked notifications are eligible once released.
+     */
+    private final LongSupplier clock = () -> NOW + System.currentTimeMillis() - start;
+
+    private final Deferrer deferrer = new Deferrer(
+        new DeferralOptions.Builder().maxBatchSize(2).maxParked(3).build(),
+        HashedWheelTimer.shared(),
+        clock,
+        requests -> {
+            batches.add(requests.size());
+            final List<CompletableFuture<Void>> results = new ArrayList<>();
+            requests.forEach(request -> results.add(CompletableFuture.completedFuture(null)));
+            return results;
+        }
+    );
+
+    @Test
+    void shouldReleaseParkedNotificationsInBatchesWhenPeriodOpens() {
+        final NotificationRequest request = request(36_000, 39_600);
+        final long releaseTime = deferrer.releaseTime(request);
+
+        assertEquals(NOW + 300, releaseTime);
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(deferrer.defer(request, releaseTime));
+        }
+
+        assertEquals(3, deferrer.parked());
+        assertEquals(1, deferrer.releaseTimes());
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+
+        assertEquals(0, deferrer.parked());
+        assertEquals(3, deferrer.released());
+        assertEquals(List.of(2, 1), batches);
+    }
+
+    @Test
+    void shouldNotMissWindowsShorterThanTheResolution() {
+        final Deferrer deferrer = new Deferrer(
+            new DeferralOptions.Builder().resolution(Duration.ofMinutes(1)).build(),
+            HashedWheelTimer.shared(),
+            clock,
+            requests -> List.of()
+        );
+
+        // Opening at 10:00:30, rounded up to the minute unless the window closes before.
+        assertEquals(NOW + 300 + 30_000, deferrer.releaseTime(request(36_030, 36_040)));
+        assertEquals(NOW + 300 + 60_000, deferrer.releaseTime(request(36_030, 39_600)));
+    }
+
+    @Test
+    void shouldParkAgainNotificationsNotEligibleWhenReleased() throws InterruptedException {
+        final NotificationRequest request = request(36_000, 39_600);
+        final CompletableFuture<Void> result = deferrer.defer(request, deferrer.releaseTime(request));
+
+        // The period now opens one hour later.
+        request.getNotification().getPeriods().get(0).setBeginHour(39_600);
+        request.getNotification().getPeriods().get(0).setEndHour(43_200);
+        Thread.sleep(500);
+
+        assertFalse(result.isDone());
+        assertEquals(1, deferrer.parked());
+        assertEquals(0, deferrer.released());
+        assertTrue(batches.isEmpty());
+
+        deferrer.releaseAll();
+        result.join();
+        assertEquals(1, deferrer.released());
+    }
+
+    @Test
+    void shouldNotDeferEligibleNotifications() {
+        assertEquals(Deferrer.NOW, deferrer.releaseTime(request(0, 86_399)));
+    }
+
+    @Test
+    void shouldRejectNotificationsThatCanNeverBeSent() {
+        final NotificationRequest request = request(List.of(new Period.Builder().zoneId("UTC").days(Collections.emptyList()).build()));
+        final long releaseTime = deferrer.releaseTime(request);
+
+        assertEquals(Schedule.NEVER, releaseTime);
+
+        final CompletionException thrown = assertThrows(CompletionException.class, () -> deferrer.defer(request, releaseTime).join());
+        assertTrue(thrown.getCause() instanceof NotifierRejectedException);
+    }
+
+    @Test
+    void shouldRejectWhenTooManyNotificationsAreParked() {
+        final NotificationRequest request = request(36_000, 39_600);
+        final long releaseTime = NOW + Duration.ofHours(1).toMillis();
+
+        for (int i = 0; i < 3; i++) {
+            deferrer.defer(request, releaseTime);
+        }
+
+        assertTrue(deferrer.defer(request, releaseTime).isCompletedExceptionally());
+        assertEquals(1, deferrer.rejected());
+
+        deferrer.releaseAll();
+        assertEquals(0, deferrer.parked());
+    }
+
+    private static NotificationRequest request(int beginHour, int endHour) {
+        return request(List.of(new Period.Builder().zoneId("UTC").beginHour(beginHour).endHour(endHour).build()));
+    }
+
+    private static NotificationRequest request(List<Period> periods) {
+        final Notification notification = new Notification();
+        notification.setType("email");
+        notification.setPeriods(periods);
+        return NotificationRequest.of(notification, Map.of());
+    }
+}
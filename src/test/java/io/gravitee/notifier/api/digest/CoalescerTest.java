@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.digest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.NotificationRequest;
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class CoalescerTest {
+
+    private final List<NotificationRequest> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void shouldSendDigestWhenMaxCountIsReached() {
+        final Coalescer coalescer = coalescer(Duration.ofHours(1), 3, Collections.singletonList("api"));
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(coalescer.submit(request("email", "{}", Map.of("api", "my-api", "id", i))));
+        }
+
+        assertEquals(1, sent.size());
+        final Map<String, Object> parameters = sent.get(0).getParameters();
+        assertEquals(3, parameters.get(CoalescingOptions.DIGEST_COUNT_PARAMETER));
+        assertEquals(3, ((List<?>) parameters.get(CoalescingOptions.DIGEST_PARAMETER)).size());
+        assertEquals("my-api", parameters.get("api"));
+        results.forEach(result -> assertTrue(result.isDone()));
+        assertEquals(3, coalescer.received());
+        assertEquals(1, coalescer.sent());
+    }
+
+    @Test
+    void shouldGroupByKey() {
+        final Coalescer coalescer = coalescer(Duration.ofHours(1), 2, Collections.singletonList("api"));
+
+        coalescer.submit(request("email", "{}", Map.of("api", "api-1")));
+        coalescer.submit(request("email", "{\"to\":\"other\"}", Map.of("api", "api-1")));
+        coalescer.submit(request("email", "{}", Map.of("api", "api-2")));
+
+        assertTrue(sent.isEmpty());
+        assertEquals(3, coalescer.pending());
+
+        coalescer.flushAll();
+
+        assertEquals(3, sent.size());
+        sent.forEach(request -> assertNull(request.getParameters().get(CoalescingOptions.DIGEST_PARAMETER)));
+    }
+
+    @Test
+    void shouldSendDigestWhenWindowElapses() throws Exception {
+        final Coalescer coalescer = coalescer(Duration.ofMillis(50), 100, Collections.emptyList());
+
+        final CompletableFuture<Void> first = coalescer.submit(request("email", "{}", Map.of("id", 1)));
+        final CompletableFuture<Void> second = coalescer.submit(request("email", "{}", Map.of("id", 2)));
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, sent.size());
+        assertEquals(2, sent.get(0).getParameters().get(CoalescingOptions.DIGEST_COUNT_PARAMETER));
+    }
+
+    private Coalescer coalescer(Duration window, int maxCount, List<String> keyParameters) {
+        return new Coalescer(
+            new CoalescingOptions.Builder().window(window).maxCount(maxCount).keyParameters(keyParameters).build(),
+            HashedWheelTimer.shared(),
+            request -> {
+                sent.add(request);
+                return CompletableFuture.completedFuture(null);
+            }
+        );
+    }
+
+    private static NotificationRequest request(String type, String configuration, Map<String, Object> parameters) {
+        final Notification notification = new Notification();
+        notification.setType(type);
+        notification.setConfiguration(configuration);
+        return NotificationRequest.of(notification, parameters);
+    }
+}
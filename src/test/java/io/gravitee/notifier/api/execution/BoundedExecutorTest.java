@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.exception.NotifierRejectedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class BoundedExecutorTest {
+
+    private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+    @Test
+    void shouldQueueSendsOverLimit() {
+        final BoundedExecutor executor = executor(2, 10, OverflowPolicy.REJECT);
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(executor.execute(this::pendingSend));
+        }
+
+        assertEquals(2, pending.size());
+        assertEquals(2, executor.inFlight());
+        assertEquals(3, executor.queueDepth());
+
+        pending.get(0).complete(null);
+        assertTrue(results.get(0).isDone());
+        assertEquals(3, pending.size());
+        assertEquals(2, executor.queueDepth());
+
+        // Complete everything, including the sends started along the way.
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).complete(null);
+        }
+
+        assertEquals(5, pending.size());
+        assertEquals(0, executor.inFlight());
+        assertEquals(0, executor.queueDepth());
+        results.forEach(result -> assertTrue(result.isDone() && !result.isCompletedExceptionally()));
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        final BoundedExecutor executor = executor(1, 1, OverflowPolicy.REJECT);
+
+        executor.execute(this::pendingSend);
+        executor.execute(this::pendingSend);
+        final CompletableFuture<Void> rejected = executor.execute(this::pendingSend);
+
+        final CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(exception.getCause() instanceof NotifierRejectedException);
+        assertEquals(1, executor.rejected());
+    }
+
+    @Test
+    void shouldDropOldestWhenQueueIsFull() {
+        final BoundedExecutor executor = executor(1, 1, OverflowPolicy.DROP_OLDEST);
+
+        executor.execute(this::pendingSend);
+        final CompletableFuture<Void> oldest = executor.execute(this::pendingSend);
+        final CompletableFuture<Void> newest = executor.execute(this::pendingSend);
+
+        assertTrue(oldest.isCompletedExceptionally());
+        assertFalse(newest.isDone());
+        assertEquals(1, executor.dropped());
+
+        pending.get(0).complete(null);
+        pending.get(1).complete(null);
+        assertTrue(newest.isDone());
+    }
+
+    @Test
+    void shouldRunInCallerWhenQueueIsFull() {
+        final BoundedExecutor executor = executor(1, 0, OverflowPolicy.CALLER_RUNS);
+
+        executor.execute(this::pendingSend);
+        final CompletableFuture<Void> result = executor.execute(() -> CompletableFuture.completedFuture(null));
+
+        assertTrue(result.isDone());
+        assertEquals(1, executor.callerRuns());
+    }
+
+    @Test
+    void shouldCountCallerRunsAsInFlightWithoutWaitingForThem() {
+        final BoundedExecutor executor = executor(1, 0, OverflowPolicy.CALLER_RUNS);
+
+        executor.execute(this::pendingSend);
+        final CompletableFuture<Void> run = executor.execute(this::pendingSend);
+
+        assertFalse(run.isDone());
+        assertEquals(1, executor.callerRuns());
+        assertEquals(2, executor.inFlight());
+
+        // Twice the maximum is reached.
+        assertTrue(executor.execute(this::pendingSend).isCompletedExceptionally());
+        assertEquals(1, executor.rejected());
+
+        pending.get(1).complete(null);
+        assertTrue(run.isDone());
+        assertEquals(1, executor.inFlight());
+    }
+
+    @Test
+    void shouldNotRecurseWithSynchronousSends() {
+        final BoundedExecutor executor = executor(1, 100_000, OverflowPolicy.REJECT);
+        final CompletableFuture<Void> first = executor.execute(this::pendingSend);
+
+        final List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            results.add(executor.execute(() -> CompletableFuture.completedFuture(null)));
+        }
+
+        pending.get(0).complete(null);
+
+        assertTrue(first.isDone());
+        results.forEach(result -> assertTrue(result.isDone()));
+        assertEquals(0, executor.inFlight());
+    }
+
+    private CompletableFuture<Void> pendingSend() {
+        final CompletableFuture<Void> send = new CompletableFuture<>();
+        pending.add(send);
+        return send;
+    }
+
+    private static BoundedExecutor executor(int maxInFlight, int queueCapacity, OverflowPolicy overflowPolicy) {
+        return new BoundedExecutor(
+            "test",
+            new ExecutionOptions.Builder().maxInFlight(maxInFlight).queueCapacity(queueCapacity).overflowPolicy(overflowPolicy).build()
+        );
+    }
+}
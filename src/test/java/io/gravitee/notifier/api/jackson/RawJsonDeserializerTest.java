@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.jackson;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.notifier.api.Notification;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class RawJsonDeserializerTest {
+
+    private static final String[] CONFIGURATIONS = {
+        "{}",
+        "[]",
+        "\"text\"",
+        "42",
+        "true",
+        "{\"url\" : \"http://localhost:8080/hook?a=1&b=\\\"2\\\"\",\n \"headers\": [ {\"name\":\"X-Unicode\",\"value\":\"\\u00e9t\\u00e9 ☃\"} ]}",
+        "{\"int\":1,\"long\":12345678901234,\"big\":123456789012345678901234567890,\"double\":1.10,\"exp\":1e3,\"neg\":-0.5}",
+        "{\"nested\":{\"deep\":{\"deeper\":[1,[2,[3,{\"a\":null}]]]}},\"empty\":{},\"bool\":false}",
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void shouldProduceSameOutputAsTree() throws Exception {
+        for (String configuration : CONFIGURATIONS) {
+            final Notification notification = mapper.readValue(
+                "{\"type\":\"webhook\",\"configuration\":" + configuration + "}",
+                Notification.class
+            );
+
+            assertEquals(mapper.writeValueAsString(mapper.readTree(configuration)), notification.getConfiguration());
+        }
+    }
+
+    @Test
+    void shouldDeserializeWithObjectReader() throws Exception {
+        final Notification notification = mapper
+            .readerFor(Notification.class)
+            .readValue("{\"type\":\"webhook\",\"configuration\":{\"url\":\"http://localhost\"}}");
+
+        assertEquals("{\"url\":\"http://localhost\"}", notification.getConfiguration());
+    }
+
+    @Test
+    void shouldSerializeAsRawValue() throws Exception {
+        final String json = "{\"type\":\"webhook\",\"periods\":null,\"configuration\":{\"url\":\"http://localhost\"}}";
+
+        final Notification notification = mapper.readValue(json, Notification.class);
+
+        assertEquals(mapper.readTree(json), mapper.readTree(mapper.writeValueAsString(notification)));
+    }
+
+    @Test
+    void shouldKeepConfigurationUndecodedWhenLazy() throws Exception {
+        final String json = "{\"type\":\"webhook\",\"periods\":null,\"configuration\":{\"url\":\"http://localhost\",\"name\":\"été\"}}";
+
+        final Notification notification = mapper
+            .readerFor(Notification.class)
+            .withAttribute(RawJsonValueDeserializer.LAZY_ATTRIBUTE, true)
+            .readValue(json);
+
+        assertFalse(notification.rawConfiguration().isDecoded());
+        assertEquals(mapper.readTree(json), mapper.readTree(mapper.writeValueAsString(notification)));
+
+        assertEquals("{\"url\":\"http://localhost\",\"name\":\"été\"}", notification.getConfiguration());
+        assertTrue(notification.rawConfiguration().isDecoded());
+    }
+}
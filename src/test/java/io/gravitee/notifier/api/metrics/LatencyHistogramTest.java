@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void shouldMapValuesToContiguousBuckets() {
+        for (long value : new long[] { 0, 1, 31, 32, 63, 64, 1_000, 123_456_789, Long.MAX_VALUE }) {
+            final int index = LatencyHistogram.index(value);
+
+            assertTrue(LatencyHistogram.lowestValue(index) <= value);
+            assertTrue(LatencyHistogram.highestValue(index) >= value);
+        }
+
+        for (int index = 0; index < 1000; index++) {
+            assertEquals(LatencyHistogram.lowestValue(index + 1), LatencyHistogram.highestValue(index) + 1);
+        }
+    }
+
+    @Test
+    void shouldReportPercentilesWithBoundedError() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000_000L, histogram.max());
+        assertEquals(50_000_500.0, histogram.mean(), 0.001);
+
+        final long p50 = histogram.valueAtPercentile(50);
+        final long p99 = histogram.valueAtPercentile(99);
+        assertTrue(Math.abs(p50 - 50_000_000L) <= 50_000_000L / LatencyHistogram.SUB_BUCKETS, "p50 was " + p50);
+        assertTrue(Math.abs(p99 - 99_000_000L) <= 99_000_000L / LatencyHistogram.SUB_BUCKETS, "p99 was " + p99);
+        assertEquals(100_000_000L, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void shouldReset() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(42);
+
+        assertEquals(0, histogram.valueAtPercentile(50));
+
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.valueAtPercentile(99));
+    }
+}
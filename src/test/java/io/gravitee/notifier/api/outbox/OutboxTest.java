@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.Notification;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class OutboxTest {
+
+    @Test
+    void shouldReplayPendingNotificationsAfterReopening() throws IOException {
+        final OutboxOptions options = options(Files.createTempDirectory("outbox"), 64 * 1024);
+
+        try (Outbox outbox = Outbox.open(options)) {
+            final long first = outbox.append(notification("email", "{\"to\":\"first\"}"), Map.of("id", 1));
+            outbox.append(notification("webhook", null), Map.of("id", 2));
+            assertTrue(outbox.acknowledge(first));
+            assertFalse(outbox.acknowledge(first));
+        }
+
+        try (Outbox outbox = Outbox.open(options)) {
+            final List<OutboxEntry> pending = outbox.pending();
+
+            assertEquals(1, pending.size());
+            assertEquals("webhook", pending.get(0).getRequest().getNotification().getType());
+            assertEquals(2, pending.get(0).getRequest().getParameters().get("id"));
+
+            // New entries never reuse the ids of the previous run.
+            assertTrue(outbox.append(notification("email", null), Map.of()) > pending.get(0).getId());
+        }
+    }
+
+    @Test
+    void shouldRecoverOnlyNotificationsReadBackWhenOpening() throws IOException {
+        final OutboxOptions options = options(Files.createTempDirectory("outbox"), 64 * 1024);
+
+        try (Outbox outbox = Outbox.open(options)) {
+            outbox.append(notification("email", null), Map.of("id", 1));
+        }
+
+        try (Outbox outbox = Outbox.open(options)) {
+            outbox.append(notification("email", null), Map.of("id", 2));
+
+            assertEquals(2, outbox.pending().size());
+            assertEquals(1, outbox.recovered().size());
+            assertEquals(1, outbox.recovered().get(0).getRequest().getParameters().get("id"));
+        }
+    }
+
+    @Test
+    void shouldDeleteAcknowledgedSegments() throws IOException {
+        final Path directory = Files.createTempDirectory("outbox");
+
+        try (Outbox outbox = Outbox.open(options(directory, 1024))) {
+            final long[] ids = new long[50];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = outbox.append(notification("email", "{\"index\":" + i + "}"), Map.of());
+            }
+            assertTrue(outbox.segments() > 1);
+
+            for (long id : ids) {
+                outbox.acknowledge(id);
+            }
+
+            assertEquals(0, outbox.size());
+            assertEquals(1, outbox.segments());
+            assertEquals(1, segmentFiles(directory));
+        }
+    }
+
+    @Test
+    void shouldCompactOldestSegment() throws IOException {
+        final OutboxOptions options = options(Files.createTempDirectory("outbox"), 1024);
+
+        try (Outbox outbox = Outbox.open(options)) {
+            final long kept = outbox.append(notification("email", "{\"kept\":true}"), Map.of());
+            for (int i = 0; i < 40; i++) {
+                outbox.acknowledge(outbox.append(notification("email", "{\"index\":" + i + "}"), Map.of()));
+            }
+
+            assertEquals(1, outbox.size());
+            assertEquals(kept, outbox.pending().get(0).getId());
+            assertTrue(outbox.segments() <= 2);
+        }
+
+        try (Outbox outbox = Outbox.open(options)) {
+            assertEquals(1, outbox.size());
+            assertEquals("{\"kept\":true}", outbox.pending().get(0).getRequest().getNotification().getConfiguration());
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornRecord() throws IOException {
+        final Path directory = Files.createTempDirectory("outbox");
+        final OutboxOptions options = options(directory, 4096);
+
+        try (Outbox outbox = Outbox.open(options)) {
+            outbox.append(notification("email", null), Map.of("id", 1));
+            outbox.append(notification("email", null), Map.of("id", 2));
+        }
+
+        // Corrupt the payload of the second record, as if the process stopped while writing it.
+        final Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(Segment.HEADER_SIZE);
+            channel.read(header, 0);
+            final int second = Segment.HEADER_SIZE + header.getInt(1);
+            channel.write(ByteBuffer.wrap(new byte[] { 'x' }), second + Segment.HEADER_SIZE + 2);
+        }
+
+        try (Outbox outbox = Outbox.open(options)) {
+            assertEquals(1, outbox.size());
+            assertEquals(1, outbox.pending().get(0).getRequest().getParameters().get("id"));
+
+            outbox.append(notification("email", null), Map.of("id", 3));
+        }
+
+        try (Outbox outbox = Outbox.open(options)) {
+            assertEquals(2, outbox.size());
+        }
+    }
+
+    @Test
+    void shouldReloadEntriesCopiedByAnInterruptedCompaction() throws IOException {
+        final Path directory = Files.createTempDirectory("outbox");
+        final OutboxOptions options = options(directory, 4096);
+
+        final long first;
+        final long second;
+        try (Outbox outbox = Outbox.open(options)) {
+            first = outbox.append(notification("email", null), Map.of("id", 1));
+            second = outbox.append(notification("email", null), Map.of("id", 2));
+        }
+
+        // The entries were copied to a newer segment, but the process stopped before the older one was deleted.
+        Files.copy(
+            directory.resolve(String.format("segment-%020d.outbox", 0)),
+            directory.resolve(String.format("segment-%020d.outbox", 1))
+        );
+
+        try (Outbox outbox = Outbox.open(options)) {
+            assertEquals(2, outbox.size());
+
+            assertTrue(outbox.acknowledge(first));
+            assertTrue(outbox.acknowledge(second));
+            outbox.compact();
+
+            assertEquals(0, outbox.size());
+            assertEquals(1, outbox.segments());
+        }
+    }
+
+    private static OutboxOptions options(Path directory, int segmentSize) {
+        return new OutboxOptions.Builder().directory(directory).segmentSize(segmentSize).build();
+    }
+
+    private static long segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static Notification notification(String type, String configuration) {
+        final Notification notification = new Notification();
+        notification.setType(type);
+        notification.setConfiguration(configuration);
+        return notification;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.Notification;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class RateLimiterTest {
+
+    @Test
+    void shouldAllowBurstThenReject() {
+        final TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertTrue(bucket.availableTokens() < 1);
+    }
+
+    @Test
+    void shouldReserveInAdvance() {
+        final TokenBucket bucket = new TokenBucket(10, 1);
+
+        assertEquals(0, bucket.reserve(0));
+
+        final long wait = bucket.reserve(Duration.ofSeconds(1).toNanos());
+        assertTrue(wait > 0 && wait <= Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    void shouldLimitPerTarget() {
+        final RateLimiter limiter = new RateLimiter(
+            new RateLimitOptions.Builder().targetPermitsPerSecond(1).targetBurst(1).targetKey(Notification::getConfiguration).build()
+        );
+
+        assertEquals(0, limiter.acquire(notification("{\"url\":\"a\"}")));
+        assertEquals(0, limiter.acquire(notification("{\"url\":\"b\"}")));
+        assertEquals(-1, limiter.acquire(notification("{\"url\":\"a\"}")));
+        assertEquals(1, limiter.throttled());
+        assertEquals(Double.POSITIVE_INFINITY, limiter.availableTokens());
+    }
+
+    @Test
+    void shouldDelayWhenConfigured() {
+        final RateLimiter limiter = new RateLimiter(
+            new RateLimitOptions.Builder().permitsPerSecond(10).burst(1).mode(ThrottleMode.DELAY).maxDelay(Duration.ofMillis(250)).build()
+        );
+
+        assertEquals(0, limiter.acquire(notification("{}")));
+        assertTrue(limiter.acquire(notification("{}")) > 0);
+        assertTrue(limiter.acquire(notification("{}")) > 0);
+        // The third token would come after the maximum delay.
+        assertEquals(-1, limiter.acquire(notification("{}")));
+        assertEquals(2, limiter.delayed());
+    }
+
+    private static Notification notification(String configuration) {
+        final Notification notification = new Notification();
+        notification.setConfiguration(configuration);
+        return notification;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.render;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class RenderBufferTest {
+
+    @Test
+    void shouldEncodeLargeContentByChunks() throws Exception {
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            expected.append("ligne n°").append(i).append(" ✓\n");
+        }
+
+        try (RenderBuffer buffer = RenderBuffer.acquire()) {
+            buffer.write(expected.toString());
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            buffer.writeTo(out, StandardCharsets.UTF_8);
+
+            assertEquals(expected.length(), buffer.length());
+            assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+            assertArrayEquals(expected.toString().getBytes(StandardCharsets.ISO_8859_1), buffer.toByteArray(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    @Test
+    void shouldReuseClosedBuffers() {
+        final RenderBuffer buffer = RenderBuffer.acquire();
+        buffer.append("content");
+        buffer.close();
+        final int pooled = RenderBuffer.pooled();
+
+        final RenderBuffer reused = RenderBuffer.acquire();
+        assertEquals(pooled - 1, RenderBuffer.pooled());
+        assertEquals(0, reused.length());
+        reused.close();
+    }
+
+    @Test
+    void shouldIgnoreCloseOfBufferAlreadyGivenBack() {
+        final RenderBuffer stale = RenderBuffer.acquire();
+        stale.close();
+
+        final RenderBuffer current = RenderBuffer.acquire();
+        current.append("in use");
+        final int pooled = RenderBuffer.pooled();
+
+        // Closing again must not give back the storage now used by the current buffer.
+        stale.close();
+        assertEquals(pooled, RenderBuffer.pooled());
+
+        final RenderBuffer other = RenderBuffer.acquire();
+        other.append("other");
+        assertEquals("in use", current.toString());
+
+        other.close();
+        current.close();
+    }
+
+    @Test
+    void shouldRejectWritesAfterClose() {
+        final RenderBuffer buffer = RenderBuffer.acquire();
+        buffer.close();
+
+        assertThrows(IllegalStateException.class, () -> buffer.write("late"));
+        RenderBuffer.acquire().close();
+    }
+}
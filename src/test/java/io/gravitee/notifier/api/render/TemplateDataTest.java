@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.render;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import freemarker.template.TemplateHashModel;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class TemplateDataTest {
+
+    @Test
+    void shouldWrapValuesOnlyOnce() throws Exception {
+        final TemplateData data = TemplateData.of(Map.of("name", "World"));
+        final TemplateHashModel model = data.model();
+
+        assertNotNull(model.get("name"));
+        assertSame(model.get("name"), model.get("name"));
+        assertNull(model.get("missing"));
+    }
+
+    @Test
+    void shouldExposeParametersAsUnmodifiableMap() {
+        final TemplateData data = TemplateData.of(Map.of("name", "World"));
+
+        assertEquals("World", data.get("name"));
+        assertEquals(Map.of("name", "World"), data);
+        assertSame(data, TemplateData.of(data));
+        assertThrows(UnsupportedOperationException.class, () -> data.put("name", "again"));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.retry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.exception.CircuitBreakerOpenException;
+import io.gravitee.notifier.api.exception.NotifierException;
+import io.gravitee.notifier.api.exception.NotifierRejectedException;
+import io.gravitee.notifier.api.exception.NotifierThrottledException;
+import io.gravitee.notifier.api.timer.HashedWheelTimer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class RetrierTest {
+
+    private final HashedWheelTimer timer = HashedWheelTimer.shared();
+
+    @Test
+    void shouldRetryUntilSuccess() throws Exception {
+        final Retrier retrier = new Retrier(policy(5).build(), timer);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        retrier
+            .execute(() ->
+                attempts.incrementAndGet() < 3
+                    ? CompletableFuture.failedFuture(new NotifierException("Unavailable"))
+                    : CompletableFuture.completedFuture(null)
+            )
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, attempts.get());
+        assertEquals(2, retrier.retries());
+        assertEquals(0, retrier.retriesInFlight());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        final Retrier retrier = new Retrier(policy(3).build(), timer);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final CompletableFuture<Void> result = retrier.execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new NotifierException("Unavailable"));
+        });
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof NotifierException);
+        assertEquals(3, attempts.get());
+        assertEquals(1, retrier.exhausted());
+    }
+
+    @Test
+    void shouldNotRetryNonRetryableFailures() {
+        final Retrier retrier = new Retrier(policy(3).abortOn(IllegalArgumentException.class).build(), timer);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final CompletableFuture<Void> result = retrier.execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid configuration"));
+        });
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+        assertEquals(0, retrier.retries());
+    }
+
+    @Test
+    void shouldNotRetryLoadSheddingFailuresByDefault() {
+        final RetryPolicy policy = policy(3).build();
+
+        assertTrue(policy.shouldRetry(1, new NotifierException("Unavailable")));
+        assertFalse(policy.shouldRetry(1, new NotifierThrottledException("Throttled")));
+        assertFalse(policy.shouldRetry(1, new NotifierRejectedException("Rejected")));
+        assertFalse(policy.shouldRetry(1, new CompletionException(new CircuitBreakerOpenException("webhook", "target"))));
+        assertFalse(policy.shouldRetry(1, new Error("Fatal")));
+    }
+
+    @Test
+    void shouldIncreaseDelayExponentially() {
+        final RetryPolicy policy = new RetryPolicy.Builder()
+            .initialDelay(Duration.ofMillis(100))
+            .maxDelay(Duration.ofMillis(1000))
+            .multiplier(2)
+            .jitter(0)
+            .build();
+
+        assertEquals(100, policy.delayMillis(1));
+        assertEquals(200, policy.delayMillis(2));
+        assertEquals(400, policy.delayMillis(3));
+        assertEquals(1000, policy.delayMillis(10));
+    }
+
+    @Test
+    void shouldApplyJitter() {
+        final RetryPolicy policy = new RetryPolicy.Builder().initialDelay(Duration.ofMillis(1000)).jitter(0.5).build();
+
+        for (int i = 0; i < 100; i++) {
+            final long delay = policy.delayMillis(1);
+            assertTrue(delay >= 500 && delay <= 1500);
+        }
+    }
+
+    private static RetryPolicy.Builder policy(int maxAttempts) {
+        return new RetryPolicy.Builder().maxAttempts(maxAttempts).initialDelay(Duration.ofMillis(5)).maxDelay(Duration.ofMillis(20));
+    }
+}
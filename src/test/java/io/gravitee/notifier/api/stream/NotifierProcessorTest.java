@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.gravitee.notifier.api.DeliveryOutcome;
+import io.gravitee.notifier.api.Notification;
+import io.gravitee.notifier.api.NotificationRequest;
+import io.gravitee.notifier.api.Notifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class NotifierProcessorTest {
+
+    @Test
+    void shouldDeliverAtNotifierPace() throws Exception {
+        final List<CompletableFuture<Void>> pending = Collections.synchronizedList(new ArrayList<>());
+        final Notifier notifier = (notification, parameters) -> {
+            final CompletableFuture<Void> result = new CompletableFuture<>();
+            pending.add(result);
+            return result;
+        };
+
+        final SubmissionPublisher<NotificationRequest> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(5);
+        notifier.stream(publisher, 3).subscribe(subscriber);
+
+        for (int i = 0; i < 10; i++) {
+            publisher.offer(NotificationRequest.of(new Notification(), Collections.emptyMap()), null);
+        }
+
+        // Only the allowed number of notifications are being delivered, the others wait in the publisher.
+        assertEquals(3, pending.size());
+
+        // Demand is also bounded by the outcomes the subscriber is ready to receive.
+        pending.get(0).complete(null);
+        assertEquals(4, pending.size());
+
+        for (int i = 1; i < 10; i++) {
+            pending.get(i).complete(null);
+        }
+        publisher.close();
+
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(10, subscriber.outcomes.size());
+        assertTrue(subscriber.outcomes.stream().allMatch(DeliveryOutcome::isSuccess));
+    }
+
+    @Test
+    void shouldPublishFailures() {
+        final AtomicInteger sent = new AtomicInteger();
+        final Notifier notifier = (notification, parameters) -> {
+            if (sent.incrementAndGet() % 2 == 0) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Unable to send"));
+            }
+            return CompletableFuture.completedFuture(null);
+        };
+
+        final SubmissionPublisher<NotificationRequest> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+        final CollectingSubscriber subscriber = new CollectingSubscriber(1);
+        notifier.stream(publisher, 2).subscribe(subscriber);
+
+        for (int i = 0; i < 4; i++) {
+            publisher.offer(NotificationRequest.of(new Notification(), Collections.emptyMap()), null);
+        }
+        publisher.close();
+
+        assertEquals(4, subscriber.outcomes.size());
+        assertEquals(2, subscriber.outcomes.stream().filter(outcome -> !outcome.isSuccess()).count());
+        assertEquals(0, subscriber.completed.getCount());
+    }
+
+    private static class CollectingSubscriber implements Flow.Subscriber<DeliveryOutcome> {
+
+        private final List<DeliveryOutcome> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private final long initialRequest;
+
+        private Flow.Subscription subscription;
+
+        private CollectingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(DeliveryOutcome item) {
+            outcomes.add(item);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {}
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
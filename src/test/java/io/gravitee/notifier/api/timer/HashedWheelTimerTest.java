@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.notifier.api.timer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+class HashedWheelTimerTest {
+
+    @Test
+    void shouldRunTasksAfterDelay() throws Exception {
+        final HashedWheelTimer timer = new HashedWheelTimer("test", 1, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        final CountDownLatch latch = new CountDownLatch(3);
+        final long start = System.nanoTime();
+
+        // Delays longer than a turn of the wheel.
+        timer.schedule(latch::countDown, 5, TimeUnit.MILLISECONDS);
+        timer.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+        timer.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, timer.pending());
+        timer.stop();
+    }
+
+    @Test
+    void shouldNotRunCancelledTasks() throws Exception {
+        final HashedWheelTimer timer = new HashedWheelTimer("test", 1, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final HashedWheelTimer.Timeout cancelled = timer.schedule(runs::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+        timer.schedule(latch::countDown, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(cancelled.cancel());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertFalse(cancelled.isExpired());
+        timer.stop();
+    }
+
+    @Test
+    void shouldRunTasksScheduledConcurrentlyWithTheStart() throws Exception {
+        final HashedWheelTimer timer = new HashedWheelTimer("test", 1, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        final int threads = 8;
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch latch = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            Thread
+                .ofVirtual()
+                .start(() -> {
+                    ready.countDown();
+                    try {
+                        ready.await();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                    timer.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+                });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        timer.stop();
+    }
+
+    @Test
+    void shouldNotStopSharedTimer() {
+        assertThrows(UnsupportedOperationException.class, () -> HashedWheelTimer.shared().stop());
+    }
+}